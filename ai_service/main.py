@@ -1,3 +1,6 @@
+import json
+import os
+
 from fastapi import FastAPI
 from pydantic import BaseModel
 
@@ -8,21 +11,57 @@ class QueryRequest(BaseModel):
     query: str
 
 
-@app.post("/predict_complexity")
-async def predict_complexity(payload: QueryRequest):
+class BatchQueryRequest(BaseModel):
+    queries: list[str]
+
+
+# Same shape as the backend's heuristic_dictionaries documents; HEURISTIC_DICTIONARY_PATH points both
+# services at one JSON file (ai.heuristic.source=file on the backend).
+DEFAULT_DICTIONARY = {
+    "base": 1.0,
+    "lengthDivisor": 300.0,
+    "maxLengthBonus": 3.0,
+    "rules": [
+        {"keywords": ["outage", "critical", "latency", "security", "data loss", "p1"], "weight": 1.2},
+        {"keywords": ["architecture", "refactor"], "weight": 0.8},
+        {"keywords": ["simple", "typo"], "weight": -0.5},
+    ],
+}
+
+
+def load_dictionary() -> dict:
+    path = os.environ.get("HEURISTIC_DICTIONARY_PATH")
+    if not path:
+        return DEFAULT_DICTIONARY
+    with open(path, encoding="utf-8") as f:
+        return {**DEFAULT_DICTIONARY, **json.load(f)}
+
+
+DICTIONARY = load_dictionary()
+
+
+def score(text: str) -> float:
     """
     Lightweight heuristic placeholder until a transformer model is wired.
     """
-    text = payload.query.lower()
-    keywords = ["outage", "critical", "latency", "security", "data loss", "p1"]
-    score = 1.0 + min(len(text) / 300, 3.0)
-    if any(k in text for k in keywords):
-        score += 1.2
-    if "architecture" in text or "refactor" in text:
-        score += 0.8
-    if "simple" in text or "typo" in text:
-        score -= 0.5
+    lowered = text.lower()
+    score = DICTIONARY["base"] + min(len(text) / DICTIONARY["lengthDivisor"], DICTIONARY["maxLengthBonus"])
+    for rule in DICTIONARY["rules"]:
+        if any(k.lower() in lowered for k in rule["keywords"] if k.strip()):
+            score += rule["weight"]
 
     score = max(1.0, min(score, 5.0))
-    return {"complexity_score": round(score, 2)}
+    return round(score, 2)
+
 
+@app.post("/predict_complexity")
+async def predict_complexity(payload: QueryRequest):
+    return {"complexity_score": score(payload.query)}
+
+
+@app.post("/predict_complexity_batch")
+async def predict_complexity_batch(payload: BatchQueryRequest):
+    """
+    Scores in the order given, so the backend can score a whole assignment cycle in one request.
+    """
+    return {"complexity_scores": [score(query) for query in payload.queries]}
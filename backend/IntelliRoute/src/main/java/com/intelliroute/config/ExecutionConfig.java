@@ -0,0 +1,26 @@
+package com.intelliroute.config;
+
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * With {@code spring.threads.virtual.enabled} set, Spring Boot already runs servlet requests and each scheduled
+ * job on its own virtual thread. This adds a Reactor scheduler for the blocking calls made from reactive code,
+ * so those run on virtual threads too instead of the bounded elastic pool.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual");
+        }
+        return Schedulers.boundedElastic();
+    }
+}
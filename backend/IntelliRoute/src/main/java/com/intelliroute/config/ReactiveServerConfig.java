@@ -0,0 +1,31 @@
+package com.intelliroute.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the reactive web application from Netty. Tomcat is on the classpath for servlet mode and would
+ * otherwise be picked as the reactive server too; on Netty a small fixed set of event-loop threads handles
+ * every connection.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    // 0 keeps Reactor Netty's default of one event loop per core.
+    @Bean(destroyMethod = "dispose")
+    public LoopResources httpLoopResources(@Value("${web.reactive.event-loop-threads:0}") int threads) {
+        return threads > 0 ? LoopResources.create("http-loop", threads, true) : LoopResources.create("http-loop");
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(LoopResources httpLoopResources) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.runOn(httpLoopResources));
+        return factory;
+    }
+}
@@ -1,24 +1,35 @@
 package com.intelliroute.controller;
 
+import com.intelliroute.dto.ListParams;
 import com.intelliroute.model.Assignment;
-import com.intelliroute.repository.AssignmentRepository;
+import com.intelliroute.model.AssignmentStatus;
 import com.intelliroute.service.AssignmentService;
+import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/assignments")
 @RequiredArgsConstructor
 public class AssignmentController {
 
     private final AssignmentService assignmentService;
-    private final AssignmentRepository assignmentRepository;
 
     @PostMapping("/run")
     @ResponseStatus(HttpStatus.ACCEPTED)
@@ -26,9 +37,30 @@ public class AssignmentController {
         assignmentService.runAssignmentCycle();
     }
 
+    @PutMapping("/{id}/complete")
+    public Assignment completeAssignment(@PathVariable String id) {
+        return assignmentService.complete(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Assignment " + id + " not found"));
+    }
+
+    @PutMapping("/complete")
+    public List<Assignment> completeAssignments(@RequestBody List<String> ids) {
+        return assignmentService.completeAll(ids);
+    }
+
     @GetMapping
-    public List<Assignment> listAssignments() {
-        return assignmentRepository.findAll();
+    public ResponseEntity<List<Object>> listAssignments(@RequestParam(required = false) AssignmentStatus status,
+                                                        @RequestParam(required = false) String engineerId,
+                                                        @Valid ListParams params) {
+        return CursorResponses.of(assignmentService.listPage(status, engineerId, params));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAssignments(@RequestParam(required = false) AssignmentStatus status,
+                                                   @RequestParam(required = false) String engineerId,
+                                                   @Valid ListParams params) {
+        return out -> assignmentService.streamAll(status, engineerId, params, out);
     }
 }
 
@@ -0,0 +1,24 @@
+package com.intelliroute.controller;
+
+import com.intelliroute.dto.CursorPage;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+
+final class CursorResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorResponses() {
+    }
+
+    /**
+     * Keeps the plain JSON array body existing clients expect; the cursor of the next page travels in a header.
+     */
+    static ResponseEntity<List<Object>> of(CursorPage<Object> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
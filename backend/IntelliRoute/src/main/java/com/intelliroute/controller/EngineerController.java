@@ -1,20 +1,28 @@
 package com.intelliroute.controller;
 
 import com.intelliroute.dto.EngineerRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.Designation;
 import com.intelliroute.model.Engineer;
 import com.intelliroute.service.EngineerService;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/engineers")
 @RequiredArgsConstructor
 public class EngineerController {
@@ -28,8 +36,17 @@ public class EngineerController {
     }
 
     @GetMapping
-    public List<Engineer> listEngineers() {
-        return engineerService.listEngineers();
+    public ResponseEntity<List<Object>> listEngineers(@RequestParam(required = false) Designation designation,
+                                                      @RequestParam(required = false) Boolean available,
+                                                      @Valid ListParams params) {
+        return CursorResponses.of(engineerService.listPage(designation, available, params));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamEngineers(@RequestParam(required = false) Designation designation,
+                                                 @RequestParam(required = false) Boolean available,
+                                                 @Valid ListParams params) {
+        return out -> engineerService.streamAll(designation, available, params, out);
     }
 }
 
@@ -0,0 +1,32 @@
+package com.intelliroute.controller;
+
+import com.intelliroute.service.LiveFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+// Returns a Flux, so the same controller serves both the servlet and the reactive stack.
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final LiveFeed liveFeed;
+
+    /**
+     * Browsers reconnecting an {@code EventSource} send {@code Last-Event-ID} on their own; other clients can
+     * pass {@code since}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> feed(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since) {
+        return liveFeed.stream(lastEventId != null ? lastEventId : since);
+    }
+}
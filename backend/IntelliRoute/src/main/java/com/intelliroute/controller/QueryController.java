@@ -1,20 +1,29 @@
 package com.intelliroute.controller;
 
 import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.QueryStatus;
 import com.intelliroute.model.SupportQuery;
 import com.intelliroute.service.QueryService;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/queries")
 @RequiredArgsConstructor
 public class QueryController {
@@ -28,8 +37,17 @@ public class QueryController {
     }
 
     @GetMapping
-    public List<SupportQuery> listQueries() {
-        return queryService.listAll();
+    public ResponseEntity<List<Object>> listQueries(@RequestParam(required = false) QueryStatus status,
+                                                    @RequestParam(required = false) Priority priority,
+                                                    @Valid ListParams params) {
+        return CursorResponses.of(queryService.listPage(status, priority, params));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamQueries(@RequestParam(required = false) QueryStatus status,
+                                               @RequestParam(required = false) Priority priority,
+                                               @Valid ListParams params) {
+        return out -> queryService.streamAll(status, priority, params, out);
     }
 }
 
@@ -0,0 +1,66 @@
+package com.intelliroute.controller;
+
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import com.intelliroute.service.ReactiveAssignmentService;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/assignments")
+@RequiredArgsConstructor
+public class ReactiveAssignmentController {
+
+    private final ReactiveAssignmentService assignmentService;
+
+    @PostMapping("/run")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Void> triggerAssignmentCycle() {
+        return assignmentService.runAssignmentCycle();
+    }
+
+    @PutMapping("/{id}/complete")
+    public Mono<Assignment> completeAssignment(@PathVariable String id) {
+        return assignmentService.complete(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment " + id + " not found")));
+    }
+
+    @PutMapping("/complete")
+    public Mono<List<Assignment>> completeAssignments(@RequestBody List<String> ids) {
+        return assignmentService.completeAll(ids);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Object>>> listAssignments(@RequestParam(required = false) AssignmentStatus status,
+                                                              @RequestParam(required = false) String engineerId,
+                                                              @Valid ListParams params) {
+        return assignmentService.listPage(status, engineerId, params).map(CursorResponses::of);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamAssignments(@RequestParam(required = false) AssignmentStatus status,
+                                          @RequestParam(required = false) String engineerId,
+                                          @Valid ListParams params) {
+        return assignmentService.streamAll(status, engineerId, params);
+    }
+}
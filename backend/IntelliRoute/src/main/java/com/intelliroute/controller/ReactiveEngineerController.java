@@ -0,0 +1,52 @@
+package com.intelliroute.controller;
+
+import com.intelliroute.dto.EngineerRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.service.ReactiveEngineerService;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/engineers")
+@RequiredArgsConstructor
+public class ReactiveEngineerController {
+
+    private final ReactiveEngineerService engineerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Engineer> createEngineer(@Valid @RequestBody EngineerRequest request) {
+        return engineerService.createEngineer(request);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Object>>> listEngineers(@RequestParam(required = false) Designation designation,
+                                                            @RequestParam(required = false) Boolean available,
+                                                            @Valid ListParams params) {
+        return engineerService.listPage(designation, available, params).map(CursorResponses::of);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamEngineers(@RequestParam(required = false) Designation designation,
+                                        @RequestParam(required = false) Boolean available,
+                                        @Valid ListParams params) {
+        return engineerService.streamAll(designation, available, params);
+    }
+}
@@ -0,0 +1,53 @@
+package com.intelliroute.controller;
+
+import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.service.ReactiveQueryService;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/queries")
+@RequiredArgsConstructor
+public class ReactiveQueryController {
+
+    private final ReactiveQueryService queryService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<SupportQuery> createQuery(@Valid @RequestBody CreateQueryRequest request) {
+        return queryService.createQuery(request);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Object>>> listQueries(@RequestParam(required = false) QueryStatus status,
+                                                          @RequestParam(required = false) Priority priority,
+                                                          @Valid ListParams params) {
+        return queryService.listPage(status, priority, params).map(CursorResponses::of);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamQueries(@RequestParam(required = false) QueryStatus status,
+                                      @RequestParam(required = false) Priority priority,
+                                      @Valid ListParams params) {
+        return queryService.streamAll(status, priority, params);
+    }
+}
@@ -0,0 +1,9 @@
+package com.intelliroute.dto;
+
+import java.util.List;
+
+/**
+ * Newest page of each collection as of feed event {@code sequence}; every later change follows as a delta.
+ */
+public record FeedSnapshot(long sequence, List<Object> engineers, List<Object> queries, List<Object> assignments) {
+}
@@ -0,0 +1,27 @@
+package com.intelliroute.dto;
+
+import jakarta.validation.constraints.Min;
+import java.time.LocalDateTime;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+@Data
+public class ListParams {
+
+    private String cursor;
+
+    @Min(1)
+    private Integer limit;
+
+    private Set<String> fields = Set.of();
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+}
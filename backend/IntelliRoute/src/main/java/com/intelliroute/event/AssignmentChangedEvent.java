@@ -0,0 +1,6 @@
+package com.intelliroute.event;
+
+import com.intelliroute.model.Assignment;
+
+public record AssignmentChangedEvent(Assignment assignment) {
+}
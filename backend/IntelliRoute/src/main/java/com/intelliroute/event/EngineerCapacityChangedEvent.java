@@ -0,0 +1,4 @@
+package com.intelliroute.event;
+
+public record EngineerCapacityChangedEvent(String engineerId) {
+}
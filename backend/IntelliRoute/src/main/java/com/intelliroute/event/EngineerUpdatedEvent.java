@@ -0,0 +1,6 @@
+package com.intelliroute.event;
+
+import com.intelliroute.model.Engineer;
+
+public record EngineerUpdatedEvent(Engineer engineer) {
+}
@@ -0,0 +1,6 @@
+package com.intelliroute.event;
+
+import java.util.Set;
+
+public record PartitionsChangedEvent(Set<Integer> owned) {
+}
@@ -0,0 +1,6 @@
+package com.intelliroute.event;
+
+import com.intelliroute.model.SupportQuery;
+
+public record QueryStatusChangedEvent(SupportQuery query) {
+}
@@ -32,5 +32,8 @@ public class Assignment {
     @Field("assigned_at")
     @Builder.Default
     private LocalDateTime assignedAt = LocalDateTime.now();
+
+    @Field("completed_at")
+    private LocalDateTime completedAt;
 }
 
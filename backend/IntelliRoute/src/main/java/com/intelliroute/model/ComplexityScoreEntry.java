@@ -0,0 +1,30 @@
+package com.intelliroute.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "complexity_scores")
+public class ComplexityScoreEntry {
+
+    // SHA-256 of the model name and the normalized description.
+    @Id
+    private String id;
+
+    private String model;
+
+    private double score;
+
+    @Field("created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
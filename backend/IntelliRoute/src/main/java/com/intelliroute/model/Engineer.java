@@ -1,5 +1,6 @@
 package com.intelliroute.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -7,11 +8,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "engineers")
@@ -37,6 +39,11 @@ public class Engineer {
 
     private String timezone;
 
+    // Interned skills, filled in by EngineerIndex; see SkillBits.
+    @Transient
+    @JsonIgnore
+    private long[] skillBits;
+
     @Field("created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,54 @@
+package com.intelliroute.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Weighted keyword rules of the heuristic complexity scorer. The score is {@code base} plus
+ * {@code length / lengthDivisor} capped at {@code maxLengthBonus}, plus the weight of every matching rule,
+ * clamped to 1.0-5.0.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "heuristic_dictionaries")
+public class KeywordDictionary {
+
+    public static final String DEFAULT_ID = "default";
+
+    @Id
+    private String id;
+
+    @Builder.Default
+    private double base = 1.0;
+
+    @Builder.Default
+    private double lengthDivisor = 300.0;
+
+    @Builder.Default
+    private double maxLengthBonus = 3.0;
+
+    @Builder.Default
+    private List<KeywordRule> rules = List.of();
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public static KeywordDictionary defaults() {
+        return KeywordDictionary.builder()
+                .id(DEFAULT_ID)
+                .rules(List.of(
+                        new KeywordRule(List.of("outage", "critical", "latency", "security", "data loss", "p1"), 1.2),
+                        new KeywordRule(List.of("architecture", "refactor"), 0.8),
+                        new KeywordRule(List.of("simple", "typo"), -0.5)))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.intelliroute.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Adds {@code weight} to the heuristic score once if any of the keywords occurs in the description, matched
+ * case-insensitively anywhere in the text.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordRule {
+
+    @Builder.Default
+    private List<String> keywords = List.of();
+
+    private double weight;
+}
@@ -0,0 +1,30 @@
+package com.intelliroute.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "partition_leases")
+public class PartitionLease {
+
+    // Partition number.
+    @Id
+    private Integer id;
+
+    private String owner;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    // Incremented on every acquisition, so a takeover is visible even when the same node re-acquires.
+    private long epoch;
+}
@@ -0,0 +1,24 @@
+package com.intelliroute.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "scheduler_nodes")
+public class SchedulerNode {
+
+    @Id
+    private String id;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+}
@@ -47,5 +47,13 @@ public class SupportQuery {
 
     @Field("sla_due_at")
     private LocalDateTime slaDueAt;
+
+    // Fixed hash bucket of the id; the scheduling partition is the bucket modulo the partition count.
+    @Field("partition_bucket")
+    private Integer partitionBucket;
+
+    // Canonical query this one is a near-duplicate of; its score is reused and it may share its engineer.
+    @Field("duplicate_of")
+    private String duplicateOf;
 }
 
@@ -3,11 +3,14 @@ package com.intelliroute.repository;
 import com.intelliroute.model.Assignment;
 import com.intelliroute.model.AssignmentStatus;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface AssignmentRepository extends MongoRepository<Assignment, String> {
+public interface AssignmentRepository extends MongoRepository<Assignment, String>, AssignmentRepositoryCustom {
     List<Assignment> findByEngineerIdAndStatus(String engineerId, AssignmentStatus status);
 
     List<Assignment> findByQueryId(String queryId);
+
+    Optional<Assignment> findFirstByQueryIdAndStatus(String queryId, AssignmentStatus status);
 }
 
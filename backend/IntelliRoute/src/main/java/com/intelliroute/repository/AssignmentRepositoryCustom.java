@@ -0,0 +1,19 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Assignment;
+import java.util.Optional;
+
+public interface AssignmentRepositoryCustom {
+
+    /**
+     * Atomically marks an active assignment as completed. Returns the updated assignment, or empty if it does
+     * not exist or is no longer active, so each assignment is completed exactly once.
+     */
+    Optional<Assignment> complete(String assignmentId);
+
+    /**
+     * Undoes {@link #complete(String)} when the rest of a non-transactional completion failed, so the assignment
+     * can be completed again.
+     */
+    void reopen(String assignmentId);
+}
@@ -0,0 +1,38 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+class AssignmentRepositoryImpl implements AssignmentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Assignment> complete(String assignmentId) {
+        Query query = Query.query(Criteria.where("_id").is(assignmentId).and("status").is(AssignmentStatus.ACTIVE));
+        Update update = new Update()
+                .set("status", AssignmentStatus.COMPLETED)
+                .set("completed_at", LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true),
+                Assignment.class));
+    }
+
+    @Override
+    public void reopen(String assignmentId) {
+        Query query = Query.query(Criteria.where("_id").is(assignmentId).and("status").is(AssignmentStatus.COMPLETED));
+        Update update = new Update()
+                .set("status", AssignmentStatus.ACTIVE)
+                .unset("completed_at");
+        mongoTemplate.updateFirst(query, update, Assignment.class);
+    }
+}
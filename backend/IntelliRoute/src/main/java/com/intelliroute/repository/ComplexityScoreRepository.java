@@ -0,0 +1,7 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.ComplexityScoreEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ComplexityScoreRepository extends MongoRepository<ComplexityScoreEntry, String> {
+}
@@ -4,7 +4,7 @@ import com.intelliroute.model.Engineer;
 import java.util.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface EngineerRepository extends MongoRepository<Engineer, String> {
+public interface EngineerRepository extends MongoRepository<Engineer, String>, EngineerRepositoryCustom {
     List<Engineer> findByAvailableTrue();
 }
 
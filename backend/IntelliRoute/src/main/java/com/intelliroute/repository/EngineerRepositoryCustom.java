@@ -0,0 +1,23 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Engineer;
+import java.util.Optional;
+
+public interface EngineerRepositoryCustom {
+
+    /**
+     * Atomically takes one unit of capacity if the engineer is available and below capacity.
+     * Returns the updated engineer, or empty if nothing was reserved.
+     */
+    Optional<Engineer> reserveCapacity(String engineerId);
+
+    /**
+     * Atomically takes {@code units} of capacity at once, or nothing if they do not all fit.
+     */
+    Optional<Engineer> reserveCapacity(String engineerId, int units);
+
+    /**
+     * Atomically gives back one unit of capacity, never dropping the load below zero.
+     */
+    Optional<Engineer> releaseCapacity(String engineerId);
+}
@@ -0,0 +1,54 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Engineer;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+class EngineerRepositoryImpl implements EngineerRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Engineer> reserveCapacity(String engineerId) {
+        Query query = Query.query(Criteria.where("_id").is(engineerId)
+                .and("available").is(true)
+                .andOperator(Criteria.expr(ComparisonOperators.valueOf("currentLoad").lessThan("capacity"))));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query,
+                new Update().inc("currentLoad", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Engineer.class));
+    }
+
+    @Override
+    public Optional<Engineer> reserveCapacity(String engineerId, int units) {
+        if (units == 1) {
+            return reserveCapacity(engineerId);
+        }
+        Query query = Query.query(Criteria.where("_id").is(engineerId)
+                .and("available").is(true)
+                .andOperator(Criteria.expr(ComparisonOperators
+                        .valueOf(ArithmeticOperators.valueOf("currentLoad").add(units))
+                        .lessThanEqualTo("capacity"))));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query,
+                new Update().inc("currentLoad", units),
+                FindAndModifyOptions.options().returnNew(true),
+                Engineer.class));
+    }
+
+    @Override
+    public Optional<Engineer> releaseCapacity(String engineerId) {
+        Query query = Query.query(Criteria.where("_id").is(engineerId).and("currentLoad").gt(0));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query,
+                new Update().inc("currentLoad", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                Engineer.class));
+    }
+}
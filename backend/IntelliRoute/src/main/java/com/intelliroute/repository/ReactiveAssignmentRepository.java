@@ -0,0 +1,12 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAssignmentRepository extends ReactiveMongoRepository<Assignment, String>,
+        ReactiveAssignmentRepositoryCustom {
+
+    Mono<Assignment> findFirstByQueryIdAndStatus(String queryId, AssignmentStatus status);
+}
@@ -0,0 +1,17 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Assignment;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAssignmentRepositoryCustom {
+
+    /**
+     * Reactive variant of {@link AssignmentRepositoryCustom#complete(String)}.
+     */
+    Mono<Assignment> complete(String assignmentId);
+
+    /**
+     * Reactive variant of {@link AssignmentRepositoryCustom#reopen(String)}.
+     */
+    Mono<Void> reopen(String assignmentId);
+}
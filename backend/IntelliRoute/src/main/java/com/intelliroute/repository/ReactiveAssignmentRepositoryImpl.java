@@ -0,0 +1,38 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class ReactiveAssignmentRepositoryImpl implements ReactiveAssignmentRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Assignment> complete(String assignmentId) {
+        Query query = Query.query(Criteria.where("_id").is(assignmentId).and("status").is(AssignmentStatus.ACTIVE));
+        Update update = new Update()
+                .set("status", AssignmentStatus.COMPLETED)
+                .set("completed_at", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true),
+                Assignment.class);
+    }
+
+    @Override
+    public Mono<Void> reopen(String assignmentId) {
+        Query query = Query.query(Criteria.where("_id").is(assignmentId).and("status").is(AssignmentStatus.COMPLETED));
+        Update update = new Update()
+                .set("status", AssignmentStatus.ACTIVE)
+                .unset("completed_at");
+        return mongoTemplate.updateFirst(query, update, Assignment.class).then();
+    }
+}
@@ -0,0 +1,8 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Engineer;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveEngineerRepository extends ReactiveMongoRepository<Engineer, String>,
+        ReactiveEngineerRepositoryCustom {
+}
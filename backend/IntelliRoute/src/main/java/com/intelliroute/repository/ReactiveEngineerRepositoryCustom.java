@@ -0,0 +1,17 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Engineer;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEngineerRepositoryCustom {
+
+    /**
+     * Reactive variant of {@link EngineerRepositoryCustom#reserveCapacity(String)}.
+     */
+    Mono<Engineer> reserveCapacity(String engineerId);
+
+    /**
+     * Reactive variant of {@link EngineerRepositoryCustom#releaseCapacity(String)}.
+     */
+    Mono<Engineer> releaseCapacity(String engineerId);
+}
@@ -0,0 +1,37 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.Engineer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class ReactiveEngineerRepositoryImpl implements ReactiveEngineerRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Engineer> reserveCapacity(String engineerId) {
+        Query query = Query.query(Criteria.where("_id").is(engineerId)
+                .and("available").is(true)
+                .andOperator(Criteria.expr(ComparisonOperators.valueOf("currentLoad").lessThan("capacity"))));
+        return mongoTemplate.findAndModify(query,
+                new Update().inc("currentLoad", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Engineer.class);
+    }
+
+    @Override
+    public Mono<Engineer> releaseCapacity(String engineerId) {
+        Query query = Query.query(Criteria.where("_id").is(engineerId).and("currentLoad").gt(0));
+        return mongoTemplate.findAndModify(query,
+                new Update().inc("currentLoad", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                Engineer.class);
+    }
+}
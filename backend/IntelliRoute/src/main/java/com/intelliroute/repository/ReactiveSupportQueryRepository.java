@@ -0,0 +1,16 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.util.Collection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveSupportQueryRepository extends ReactiveMongoRepository<SupportQuery, String>,
+        ReactiveSupportQueryRepositoryCustom {
+    Flux<SupportQuery> findByStatusIn(Collection<QueryStatus> statuses, Pageable pageable);
+
+    Flux<SupportQuery> findByStatusInAndPartitionBucketIn(Collection<QueryStatus> statuses,
+                                                          Collection<Integer> buckets, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.util.Collection;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveSupportQueryRepositoryCustom {
+
+    /**
+     * Reactive variant of {@link SupportQueryRepositoryCustom#transitionStatus}; completes empty if another
+     * writer changed the status first.
+     */
+    Mono<SupportQuery> transitionStatus(String queryId, Collection<QueryStatus> expected, QueryStatus target,
+                                        Double complexityScore);
+}
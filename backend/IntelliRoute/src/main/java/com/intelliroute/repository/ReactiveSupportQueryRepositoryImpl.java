@@ -0,0 +1,34 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class ReactiveSupportQueryRepositoryImpl implements ReactiveSupportQueryRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<SupportQuery> transitionStatus(String queryId, Collection<QueryStatus> expected,
+                                               QueryStatus target, Double complexityScore) {
+        Query query = Query.query(Criteria.where("_id").is(queryId).and("status").in(expected));
+        Update update = new Update()
+                .set("status", target)
+                .set("updated_at", LocalDateTime.now());
+        if (complexityScore != null) {
+            update.set("complexityScore", complexityScore);
+        }
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true),
+                SupportQuery.class);
+    }
+}
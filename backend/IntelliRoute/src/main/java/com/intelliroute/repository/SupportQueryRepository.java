@@ -4,14 +4,25 @@ import com.intelliroute.model.Priority;
 import com.intelliroute.model.QueryStatus;
 import com.intelliroute.model.SupportQuery;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface SupportQueryRepository extends MongoRepository<SupportQuery, String> {
+public interface SupportQueryRepository extends MongoRepository<SupportQuery, String>, SupportQueryRepositoryCustom {
     List<SupportQuery> findByStatusOrderByCreatedAtAsc(QueryStatus status);
 
     List<SupportQuery> findByStatusAndSlaDueAtBefore(QueryStatus status, LocalDateTime time);
 
+    List<SupportQuery> findByStatusAndSlaDueAtNotNull(QueryStatus status);
+
     List<SupportQuery> findByPriorityOrderByCreatedAtAsc(Priority priority);
+
+    long countByStatus(QueryStatus status);
+
+    List<SupportQuery> findByStatusIn(Collection<QueryStatus> statuses, Pageable pageable);
+
+    List<SupportQuery> findByStatusInAndPartitionBucketIn(Collection<QueryStatus> statuses,
+                                                          Collection<Integer> buckets, Pageable pageable);
 }
 
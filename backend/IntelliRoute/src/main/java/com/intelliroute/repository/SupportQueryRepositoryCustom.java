@@ -0,0 +1,17 @@
+package com.intelliroute.repository;
+
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface SupportQueryRepositoryCustom {
+
+    /**
+     * Atomically moves the query to {@code target} if its current status is one of {@code expected},
+     * storing its complexity score along the way. Returns the updated query, or empty if another writer
+     * changed the status first.
+     */
+    Optional<SupportQuery> transitionStatus(String queryId, Collection<QueryStatus> expected, QueryStatus target,
+                                            Double complexityScore);
+}
@@ -1,128 +1,230 @@
 package com.intelliroute.service;
 
+import com.intelliroute.model.SupportQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Scores query complexity through the chain of {@link ComplexityScorer}s named in {@code ai.scoring.chain},
+ * asking each in turn until one answers. Queries no scorer answers get a local score: the trained
+ * {@link ComplexityModel} once it is ready, the keyword heuristic otherwise. Left unset, the chain is
+ * {@code gemini} when an API key is configured, preceded by {@code model} when the model runs in {@code gate}
+ * mode.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AIClient {
 
-    private final WebClient webClient;
+    private final List<ComplexityScorer> chain;
+    private final HeuristicComplexityScorer heuristicComplexityScorer;
+    private final ComplexityModel complexityModel;
+    private final RoutingMetrics routingMetrics;
+    private final Scheduler blockingScheduler;
+    private final int scoringConcurrency;
+    private final int batchSize;
+    private final int batchConcurrency;
+    private final boolean virtualThreads;
+
+    public AIClient(List<ComplexityScorer> scorers,
+                    HeuristicComplexityScorer heuristicComplexityScorer,
+                    ComplexityModel complexityModel,
+                    RoutingMetrics routingMetrics,
+                    Scheduler blockingScheduler,
+                    @Value("${ai.scoring.chain:}") String chain,
+                    @Value("${ai.scoring.concurrency:16}") int scoringConcurrency,
+                    @Value("${ai.scoring.batch-size:100}") int batchSize,
+                    @Value("${ai.gemini.batch.concurrency:4}") int batchConcurrency,
+                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.heuristicComplexityScorer = heuristicComplexityScorer;
+        this.complexityModel = complexityModel;
+        this.routingMetrics = routingMetrics;
+        this.blockingScheduler = blockingScheduler;
+        this.scoringConcurrency = Math.max(1, scoringConcurrency);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+        this.virtualThreads = virtualThreads;
+        this.chain = resolveChain(scorers, chain);
+        log.info("Complexity scoring chain: {}", this.chain.stream().map(ComplexityScorer::name).toList());
+    }
 
-    @Value("${ai.gemini.api-key:}")
-    private String geminiApiKey;
+    public double predictComplexity(String description) {
+        return predictComplexityAsync(description).block();
+    }
 
-    @Value("${ai.gemini.model:gemini-1.5-flash}")
-    private String geminiModel;
+    /**
+     * Scores the description without blocking: the first answer of the chain, or the local score. A scorer
+     * that fails is counted as an error and skipped.
+     */
+    public Mono<Double> predictComplexityAsync(String description) {
+        return Flux.fromIterable(chain)
+                .concatMap(scorer -> routingMetrics.timeScoring(scorer.name(), scorer.predict(description))
+                        .onErrorResume(err -> skip(scorer, err)))
+                .next()
+                .switchIfEmpty(Mono.fromSupplier(() -> scoreLocally(description)));
+    }
 
-    @Value("${ai.gemini.endpoint:https://generativelanguage.googleapis.com/v1beta}")
-    private String geminiEndpoint;
+    /**
+     * Scores many descriptions, returning the scores in input order. Each scorer of the chain gets one batch
+     * call with the descriptions still unanswered; whatever is left is scored locally.
+     */
+    public Mono<List<Double>> predictComplexityBatch(List<String> descriptions) {
+        Double[] scores = new Double[descriptions.size()];
+        return Flux.fromIterable(chain)
+                .concatMap(scorer -> {
+                    List<Integer> pending = new ArrayList<>();
+                    for (int i = 0; i < scores.length; i++) {
+                        if (scores[i] == null) {
+                            pending.add(i);
+                        }
+                    }
+                    if (pending.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    List<String> batch = pending.stream().map(descriptions::get).toList();
+                    return routingMetrics.timeScoring(scorer.name() + "_batch", scorer.predictBatch(batch))
+                            .doOnNext(answers -> {
+                                for (int i = 0; i < pending.size(); i++) {
+                                    scores[pending.get(i)] = answers.get(i);
+                                }
+                            })
+                            .onErrorResume(err -> skip(scorer, err));
+                })
+                .then(Mono.fromSupplier(() -> {
+                    for (int i = 0; i < scores.length; i++) {
+                        if (scores[i] == null) {
+                            scores[i] = scoreLocally(descriptions.get(i));
+                        }
+                    }
+                    return Arrays.asList(scores);
+                }));
+    }
 
-    public double predictComplexity(String description) {
-        if (StringUtils.hasText(geminiApiKey)) {
-            Double score = predictWithGemini(description);
-            if (score != null) {
-                return score;
-            }
-            log.warn("Gemini call failed, falling back to heuristic scoring");
+    /**
+     * Fills in the complexity score of every query that lacks one, running up to {@code ai.scoring.concurrency}
+     * calls at once. Queries are emitted in input order as soon as they and every query before them are scored,
+     * so callers keep their dispatch order without waiting for the whole batch. When a scorer of the chain
+     * batches, the queries go through {@link #predictComplexityBatch} instead, {@code ai.scoring.batch-size}
+     * at a time and still in input order. Near-duplicates of the same canonical query share one score.
+     */
+    public Flux<SupportQuery> scoreAll(List<SupportQuery> queries) {
+        if (chain.stream().anyMatch(ComplexityScorer::batches)) {
+            return Flux.fromIterable(segments(queries))
+                    .flatMapSequential(this::scoreBatch, batchConcurrency);
         }
-        return heuristicComplexity(description);
+        Map<String, Mono<Double>> shared = new ConcurrentHashMap<>();
+        return Flux.fromIterable(queries)
+                .flatMapSequential(query -> {
+                    if (query.getComplexityScore() != null) {
+                        return Mono.just(query);
+                    }
+                    return shared.computeIfAbsent(scoringKey(query), key -> {
+                                Mono<Double> scoring = predictComplexityAsync(query.getDescription());
+                                // With virtual threads each query is scored on its own thread, blocking parts
+                                // included.
+                                return (virtualThreads ? scoring.subscribeOn(blockingScheduler) : scoring).cache();
+                            })
+                            .map(score -> {
+                                query.setComplexityScore(score);
+                                return query;
+                            });
+                }, scoringConcurrency);
     }
 
-    private Double predictWithGemini(String description) {
-        try {
-            String prompt = """
-                    You are scoring support queries for engineering triage. \
-                    Return only a number between 1.0 (very simple) and 5.0 (very complex). \
-                    No text, no units, just the number.
-
-                    Query: %s
-                    """.formatted(description);
-
-            Map<String, Object> request = Map.of(
-                    "contents", List.of(
-                            Map.of("parts", List.of(Map.of("text", prompt)))
-                    )
-            );
+    private Flux<SupportQuery> scoreBatch(List<SupportQuery> segment) {
+        List<List<SupportQuery>> unscored = new ArrayList<>(segment.stream()
+                .filter(query -> query.getComplexityScore() == null)
+                .collect(Collectors.groupingBy(AIClient::scoringKey, LinkedHashMap::new, Collectors.toList()))
+                .values());
+        if (unscored.isEmpty()) {
+            return Flux.fromIterable(segment);
+        }
+        return predictComplexityBatch(unscored.stream().map(group -> group.getFirst().getDescription()).toList())
+                .flatMapMany(scores -> {
+                    for (int i = 0; i < unscored.size(); i++) {
+                        Double score = scores.get(i);
+                        unscored.get(i).forEach(query -> query.setComplexityScore(score));
+                    }
+                    return Flux.fromIterable(segment);
+                });
+    }
 
-            Map<String, Object> response = webClient.post()
-                    .uri(geminiEndpoint + "/models/" + geminiModel + ":generateContent?key=" + geminiApiKey)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(BodyInserters.fromValue(request))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .onErrorResume(err -> {
-                        log.warn("Gemini service call failed: {}", err.getMessage());
-                        return Mono.empty();
-                    })
-                    .block();
+    private static String scoringKey(SupportQuery query) {
+        return query.getDuplicateOf() != null ? query.getDuplicateOf() : query.getId();
+    }
 
-            if (response == null || !response.containsKey("candidates")) {
-                return null;
-            }
-            Object candidatesObj = response.get("candidates");
-            if (!(candidatesObj instanceof List<?> candidates) || candidates.isEmpty()) {
-                return null;
-            }
-            Object first = candidates.getFirst();
-            if (!(first instanceof Map<?, ?> candidate)) {
-                return null;
-            }
-            Object contentObj = candidate.get("content");
-            if (!(contentObj instanceof Map<?, ?> content)) {
-                return null;
+    // Consecutive runs holding batch-size unscored queries each; scored queries ride along in place.
+    private List<List<SupportQuery>> segments(List<SupportQuery> queries) {
+        List<List<SupportQuery>> segments = new ArrayList<>();
+        List<SupportQuery> segment = new ArrayList<>();
+        int unscored = 0;
+        for (SupportQuery query : queries) {
+            if (query.getComplexityScore() == null && unscored == batchSize) {
+                segments.add(segment);
+                segment = new ArrayList<>();
+                unscored = 0;
             }
-            Object partsObj = content.get("parts");
-            if (!(partsObj instanceof List<?> parts) || parts.isEmpty()) {
-                return null;
+            segment.add(query);
+            if (query.getComplexityScore() == null) {
+                unscored++;
             }
-            Object part = parts.getFirst();
-            if (!(part instanceof Map<?, ?> partMap) || !partMap.containsKey("text")) {
-                return null;
-            }
-            String text = partMap.get("text").toString().trim();
-            // Gemini may return extra tokens; grab the first parsable number.
-            String numeric = text.split("[^0-9\\.]")[0];
-            return Double.parseDouble(numeric);
-        } catch (Exception ex) {
-            log.warn("Gemini parsing failed: {}", ex.getMessage());
-            return null;
         }
+        if (!segment.isEmpty()) {
+            segments.add(segment);
+        }
+        return segments;
     }
 
-    private double heuristicComplexity(String description) {
-        if (description == null || description.isBlank()) {
-            return 2.5;
+    /**
+     * The trained model's score once it is ready, the keyword heuristic otherwise.
+     */
+    private double scoreLocally(String description) {
+        if (complexityModel.ready()) {
+            return routingMetrics.timeLocal(ComplexityModel.NAME, () -> complexityModel.score(description));
         }
-        String text = description.toLowerCase();
-        int length = text.length();
+        return routingMetrics.timeLocal(HeuristicComplexityScorer.NAME,
+                () -> heuristicComplexityScorer.score(description));
+    }
 
-        double score = 1.0 + Math.min(length / 300.0, 3.0);
+    private <T> Mono<T> skip(ComplexityScorer scorer, Throwable err) {
+        log.warn("Complexity scorer {} failed; trying the next one: {}", scorer.name(), err.getMessage());
+        return Mono.empty();
+    }
 
-        if (text.contains("outage") || text.contains("critical")
-                || text.contains("latency") || text.contains("security")
-                || text.contains("data loss") || text.contains("p1")) {
-            score += 1.2;
-        }
-        if (text.contains("architecture") || text.contains("refactor")) {
-            score += 0.8;
+    private List<ComplexityScorer> resolveChain(List<ComplexityScorer> scorers, String chain) {
+        Map<String, ComplexityScorer> byName = scorers.stream()
+                .collect(Collectors.toMap(ComplexityScorer::name, Function.identity()));
+        List<String> names = new ArrayList<>();
+        if (StringUtils.hasText(chain)) {
+            Arrays.stream(StringUtils.commaDelimitedListToStringArray(chain)).map(String::trim).forEach(names::add);
+        } else if (byName.get(GeminiComplexityScorer.NAME) instanceof GeminiComplexityScorer gemini
+                && gemini.configured()) {
+            if (complexityModel.mode() == ComplexityModel.Mode.GATE) {
+                names.add(ComplexityModel.NAME);
+            }
+            names.add(GeminiComplexityScorer.NAME);
         }
-        if (text.contains("simple") || text.contains("typo")) {
-            score -= 0.5;
+        List<ComplexityScorer> resolved = new ArrayList<>();
+        for (String name : names) {
+            ComplexityScorer scorer = byName.get(name);
+            if (scorer == null) {
+                throw new IllegalStateException("Unknown complexity scorer '" + name + "' in ai.scoring.chain; "
+                        + "known scorers are " + byName.keySet());
+            }
+            resolved.add(scorer);
         }
-
-        score = Math.max(1.0, Math.min(score, 5.0));
-        return Math.round(score * 100.0) / 100.0;
+        return List.copyOf(resolved);
     }
 }
-
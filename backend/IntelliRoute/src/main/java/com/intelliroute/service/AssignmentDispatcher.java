@@ -0,0 +1,92 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.EngineerCapacityChangedEvent;
+import com.intelliroute.event.QueryCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Event-driven assignment. New queries and engineer capacity changes wake a single worker thread, which drains
+ * the {@link PendingQueue} within milliseconds instead of waiting for the next polling cycle. Bursts of events
+ * are coalesced into one cycle.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentDispatcher {
+
+    private final AssignmentService assignmentService;
+
+    private final BlockingQueue<Boolean> signals = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    @Value("${assignment.dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = virtualThreads
+                ? Thread.ofVirtual().name("assignment-dispatcher").unstarted(this::drain)
+                : new Thread(this::drain, "assignment-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Event-driven assignment dispatch started");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @EventListener
+    public void onQueryCreated(QueryCreatedEvent event) {
+        signal();
+    }
+
+    @EventListener
+    public void onCapacityChanged(EngineerCapacityChangedEvent event) {
+        signal();
+    }
+
+    private void signal() {
+        if (enabled) {
+            signals.offer(Boolean.TRUE);
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                if (signals.poll(1, TimeUnit.SECONDS) == null) {
+                    continue;
+                }
+                signals.clear();
+                assignmentService.runAssignmentCycle();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Assignment dispatch failed; the next polling cycle will retry: {}", ex.getMessage());
+            }
+        }
+    }
+}
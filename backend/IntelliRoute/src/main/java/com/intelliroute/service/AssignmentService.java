@@ -1,24 +1,38 @@
 package com.intelliroute.service;
 
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.AssignmentChangedEvent;
 import com.intelliroute.model.Assignment;
 import com.intelliroute.model.AssignmentStatus;
-import com.intelliroute.model.Designation;
 import com.intelliroute.model.Engineer;
-import com.intelliroute.model.Priority;
 import com.intelliroute.model.QueryStatus;
 import com.intelliroute.model.SupportQuery;
 import com.intelliroute.repository.AssignmentRepository;
 import com.intelliroute.repository.EngineerRepository;
+import com.intelliroute.service.RoutingMetrics.Phase;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Service
 @RequiredArgsConstructor
@@ -29,52 +43,161 @@ public class AssignmentService {
     private final EngineerRepository engineerRepository;
     private final AssignmentRepository assignmentRepository;
     private final AIClient aiClient;
+    private final EngineerIndex engineerIndex;
+    private final EngineerSelector engineerSelector;
+    private final BatchMatcher batchMatcher;
+    private final PendingQueue pendingQueue;
+    private final CursorPager cursorPager;
+    private final AssignmentWriteBatcher writeBatcher;
+    private final MongoTransactions mongoTransactions;
+    private final RoutingMetrics routingMetrics;
+    private final PartitionCoordinator partitionCoordinator;
+    private final ObjectProvider<ReactiveAssignmentService> reactiveAssignmentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler blockingScheduler;
 
-    @Scheduled(fixedDelayString = "${assignment.scheduler.delay-ms:5000}")
+    @Value("${assignment.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${assignment.bulk.enabled:false}")
+    private boolean bulkEnabled;
+
+    @Value("${queries.dedup.route-to-canonical:false}")
+    private boolean routeDuplicates;
+
+    // With event-driven dispatch enabled, polling only acts as a low-frequency safety net.
+    @Scheduled(fixedDelayString = "#{${assignment.dispatch.enabled:false} "
+            + "? ${assignment.dispatch.safety-net-ms:60000} : ${assignment.scheduler.delay-ms:5000}}")
     public void runAssignmentCycle() {
-        List<SupportQuery> pending = queryService.findPending();
+        // In reactive mode the cycle runs on the non-blocking pipeline; the calling thread only waits for it.
+        ReactiveAssignmentService reactive = reactiveAssignmentService.getIfAvailable();
+        if (reactive != null) {
+            reactive.runAssignmentCycle().block();
+            return;
+        }
+        RoutingMetrics.Cycle cycle = routingMetrics.startCycle("queue");
+        List<SupportQuery> drained = cycle.time(Phase.FETCH, pendingQueue::drain);
+        // A partition lost since its queries were queued is now scheduled by another node.
+        List<SupportQuery> pending = drained.stream().filter(partitionCoordinator::owns).toList();
         if (pending.isEmpty()) {
+            pendingQueue.requeue(drained);
             return;
         }
         log.debug("Running assignment cycle for {} pending queries", pending.size());
-        for (SupportQuery query : pending) {
-            double complexity = query.getComplexityScore() != null
-                    ? query.getComplexityScore()
-                    : aiClient.predictComplexity(query.getDescription());
-            query.setComplexityScore(complexity);
-
-            Optional<Engineer> engineer = selectEngineer(query);
-            if (engineer.isEmpty()) {
-                query.setStatus(QueryStatus.ESCALATED);
-                queryService.save(query);
-                log.warn("No available engineer; escalated query {}", query.getId());
-                continue;
+        try {
+            place(pending, cycle);
+        } finally {
+            // Queries that lost a race for an engineer stay pending and wait for the next cycle.
+            pendingQueue.requeue(drained);
+            cycle.stop();
+        }
+    }
+
+    private void place(List<SupportQuery> queries, RoutingMetrics.Cycle cycle) {
+        List<SupportQuery> pending = routeDuplicates
+                ? cycle.time(Phase.PERSIST, () -> queries.stream()
+                        .filter(query -> attachToCanonical(query).isEmpty())
+                        .toList())
+                : queries;
+        if (pending.isEmpty()) {
+            return;
+        }
+        AssignmentWriteBatcher.Batch writes = bulkEnabled ? writeBatcher.begin() : null;
+        if (batchEnabled) {
+            runBatchCycle(pending, writes, cycle);
+        } else {
+            // Scoring runs concurrently in AIClient; scores are emitted in queue order, so urgent queries still
+            // reach the matcher first. Time spent waiting for the next score is the score phase.
+            Iterator<SupportQuery> scored = aiClient.scoreAll(pending).toIterable().iterator();
+            while (cycle.time(Phase.SCORE, scored::hasNext)) {
+                SupportQuery query = scored.next();
+                Optional<Engineer> engineer = cycle.time(Phase.SELECT, () -> engineerSelector.select(query));
+                if (engineer.isEmpty()) {
+                    cycle.run(Phase.PERSIST, () -> escalate(query, writes));
+                    continue;
+                }
+                cycle.run(Phase.PERSIST, () -> commit(query, engineer.get(), writes));
+            }
+        }
+        if (writes != null) {
+            cycle.time(Phase.PERSIST, writes::flush);
+        }
+    }
+
+    private void runBatchCycle(List<SupportQuery> pending, AssignmentWriteBatcher.Batch writes,
+                               RoutingMetrics.Cycle cycle) {
+        cycle.time(Phase.SCORE, () -> aiClient.scoreAll(pending).then().block());
+        Map<String, Engineer> engineers = new HashMap<>();
+        BatchMatcher.Plan plan = cycle.time(Phase.SELECT, () -> {
+            engineerIndex.freeEngineers().forEach(e -> engineers.put(e.getId(), e));
+            return batchMatcher.solve(pending, engineers.values());
+        });
+        routingMetrics.batchPlan(plan);
+        cycle.run(Phase.PERSIST, () -> {
+            for (SupportQuery query : pending) {
+                String engineerId = plan.placements().get(query.getId());
+                if (engineerId == null) {
+                    escalate(query, writes);
+                    continue;
+                }
+                commit(query, engineers.get(engineerId), writes);
             }
-            assign(query, engineer.get());
+        });
+    }
+
+    private void commit(SupportQuery query, Engineer engineer, AssignmentWriteBatcher.Batch writes) {
+        if (writes != null) {
+            writes.place(query, engineer);
+        } else {
+            assign(query, engineer);
         }
     }
 
-    @Scheduled(fixedDelayString = "${assignment.sla.check-ms:60000}")
+    private void escalate(SupportQuery query, AssignmentWriteBatcher.Batch writes) {
+        if (writes != null) {
+            writes.escalate(query);
+        } else if (queryService.escalate(query).isPresent()) {
+            routingMetrics.escalated(RoutingMetrics.NO_ENGINEER, 1);
+            log.warn("No available engineer; escalated query {}", query.getId());
+        }
+    }
+
+    // SLA timers fire from SlaTimerWheel; while it is enabled this scan is only a rare reconciliation pass.
+    @Scheduled(fixedDelayString = "#{${assignment.sla.wheel-enabled:true} "
+            + "? ${assignment.sla.reconcile-ms:600000} : ${assignment.sla.check-ms:60000}}")
     public void escalateSlaBreaches() {
         List<SupportQuery> pastSla = queryService.findPastSla();
         for (SupportQuery query : pastSla) {
-            query.setStatus(QueryStatus.ESCALATED);
-            queryService.save(query);
-            log.warn("Query {} breached SLA and has been escalated", query.getId());
+            if (queryService.escalate(query).isPresent()) {
+                routingMetrics.escalated(RoutingMetrics.SLA, 1);
+                log.warn("Query {} breached SLA and has been escalated", query.getId());
+            }
         }
     }
 
+    /**
+     * Places the query on the engineer. The query is claimed and the engineer's capacity reserved with
+     * conditional atomic updates, so concurrent cycles (or replicas) can never overbook an engineer or assign
+     * the same query twice. If a later step fails, the earlier ones are rolled back.
+     */
     public Optional<Assignment> assign(SupportQuery query, Engineer engineer) {
-        if (engineer.getCurrentLoad() >= engineer.getCapacity()) {
-            log.warn("Engineer {} is at capacity; skipping assignment", engineer.getId());
+        QueryStatus previousStatus = query.getStatus();
+        if (queryService.claimForAssignment(query).isEmpty()) {
+            routingMetrics.rejected(RoutingMetrics.CLAIMED, 1);
+            log.warn("Query {} was already taken by another cycle; skipping assignment", query.getId());
             return Optional.empty();
         }
 
-        query.setStatus(QueryStatus.ASSIGNED);
-        queryService.save(query);
-
-        engineer.setCurrentLoad(engineer.getCurrentLoad() + 1);
-        engineerRepository.save(engineer);
+        Optional<Engineer> reserved = engineerRepository.reserveCapacity(engineer.getId());
+        if (reserved.isEmpty()) {
+            queryService.releaseClaim(query, previousStatus);
+            engineerRepository.findById(engineer.getId()).ifPresent(engineerIndex::upsert);
+            routingMetrics.rejected(RoutingMetrics.CAPACITY, 1);
+            log.warn("Engineer {} is at capacity; skipping assignment", engineer.getId());
+            return Optional.empty();
+        }
+        engineer.setCurrentLoad(reserved.get().getCurrentLoad());
+        engineerIndex.upsert(reserved.get());
 
         Assignment assignment = Assignment.builder()
                 .engineerId(engineer.getId())
@@ -83,75 +206,184 @@ public class AssignmentService {
                 .assignedAt(LocalDateTime.now())
                 .status(AssignmentStatus.ACTIVE)
                 .build();
-        Assignment saved = assignmentRepository.save(assignment);
+        Assignment saved;
+        try {
+            saved = assignmentRepository.save(assignment);
+        } catch (RuntimeException ex) {
+            engineerRepository.releaseCapacity(engineer.getId()).ifPresent(engineerIndex::upsert);
+            queryService.releaseClaim(query, previousStatus);
+            throw ex;
+        }
+        query.setStatus(QueryStatus.ASSIGNED);
+        eventPublisher.publishEvent(new AssignmentChangedEvent(saved));
         log.info("Assigned query {} (score {}) to engineer {} ({})",
                 query.getId(), query.getComplexityScore(), engineer.getId(), engineer.getDesignation());
         return Optional.of(saved);
     }
 
-    private Optional<Engineer> selectEngineer(SupportQuery query) {
-        List<Engineer> available = engineerRepository.findByAvailableTrue();
-        if (available.isEmpty()) {
+    /**
+     * Puts a near-duplicate on the engineer already working its canonical query, without reserving capacity:
+     * the assignment is recorded with a zero allocation and completing it frees nothing. Empty if the query is
+     * no duplicate, its canonical query has no active assignment or the query was already taken.
+     */
+    public Optional<Assignment> attachToCanonical(SupportQuery query) {
+        if (query.getDuplicateOf() == null) {
             return Optional.empty();
         }
-        Designation target = targetDesignation(query.getComplexityScore());
-        Set<String> queryTags = Set.copyOf(query.getTags() == null ? List.of() : query.getTags());
-
-        return available.stream()
-                .filter(e -> e.getCurrentLoad() < e.getCapacity())
-                .max(Comparator.comparingDouble((Engineer e) ->
-                        scoreEngineer(e, target, queryTags, query.getPriority(), query.getComplexityScore()))
-                        .thenComparingInt(Engineer::getCurrentLoad))
-                .map(Optional::of)
-                .orElse(Optional.empty());
-    }
-
-    private double scoreEngineer(Engineer engineer, Designation target, Set<String> queryTags,
-                                 Priority priority, double complexity) {
-        int freeCapacity = engineer.getCapacity() - engineer.getCurrentLoad();
-        int skillMatches = CollectionUtils.isEmpty(queryTags) || CollectionUtils.isEmpty(engineer.getSkills())
-                ? 0
-                : (int) engineer.getSkills().stream().filter(queryTags::contains).count();
-
-        double designationFit = 0.0;
-        if (engineer.getDesignation() == target) {
-            designationFit = 3.0;
-        } else if (isHigherSeniority(engineer.getDesignation(), target)) {
-            designationFit = 2.0;
-        } else {
-            designationFit = -1.0;
+        Optional<Assignment> canonical = assignmentRepository.findFirstByQueryIdAndStatus(query.getDuplicateOf(),
+                AssignmentStatus.ACTIVE);
+        QueryStatus previousStatus = query.getStatus();
+        if (canonical.isEmpty() || queryService.claimForAssignment(query).isEmpty()) {
+            return Optional.empty();
         }
+        Assignment assignment = Assignment.builder()
+                .engineerId(canonical.get().getEngineerId())
+                .queryId(query.getId())
+                .allocationPercent(0.0)
+                .assignedAt(LocalDateTime.now())
+                .status(AssignmentStatus.ACTIVE)
+                .build();
+        Assignment saved;
+        try {
+            saved = assignmentRepository.save(assignment);
+        } catch (RuntimeException ex) {
+            queryService.releaseClaim(query, previousStatus);
+            throw ex;
+        }
+        query.setStatus(QueryStatus.ASSIGNED);
+        eventPublisher.publishEvent(new AssignmentChangedEvent(saved));
+        log.info("Attached query {} to engineer {} with its near-duplicate {}",
+                query.getId(), saved.getEngineerId(), query.getDuplicateOf());
+        return Optional.of(saved);
+    }
+
+    /**
+     * Completes the assignment, resolves its query and gives the engineer's capacity back, then hands the freed
+     * capacity to the most urgent waiting query in the background. Completing an already completed assignment
+     * returns it unchanged.
+     */
+    public Optional<Assignment> complete(String assignmentId) {
+        List<Assignment> completed = completeAll(List.of(assignmentId));
+        if (!completed.isEmpty()) {
+            return Optional.of(completed.getFirst());
+        }
+        Optional<Assignment> existing = assignmentRepository.findById(assignmentId);
+        if (existing.isPresent() && existing.get().getStatus() != AssignmentStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Assignment " + assignmentId + " is " + existing.get().getStatus());
+        }
+        return existing;
+    }
+
+    /**
+     * Bulk variant of {@link #complete(String)}; returns the assignments completed by this call and skips ids
+     * that are unknown or no longer active. Without a transaction, an assignment whose query or capacity could
+     * not be updated is reopened, so completing it again finishes the job instead of leaking the capacity; the
+     * other ids are still completed and announced. Such failures are logged, and rethrown if no id completed.
+     */
+    public List<Assignment> completeAll(Collection<String> assignmentIds) {
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        List<Completion> completions = mongoTransactions.execute(transactional -> {
+            failures.clear();
+            List<Completion> done = new ArrayList<>();
+            for (String id : assignmentIds.stream().distinct().toList()) {
+                try {
+                    completeOne(id, transactional).ifPresent(done::add);
+                } catch (RuntimeException ex) {
+                    // Inside a transaction the whole batch rolls back and is replayed without one.
+                    if (transactional) {
+                        throw ex;
+                    }
+                    failures.put(id, ex);
+                }
+            }
+            return done;
+        });
+
+        List<Assignment> completed = new ArrayList<>(completions.size());
+        for (Completion completion : completions) {
+            completion.engineer().ifPresent(engineerIndex::upsert);
+            completion.query().ifPresent(queryService::publishStatusChanged);
+            eventPublisher.publishEvent(new AssignmentChangedEvent(completion.assignment()));
+            completed.add(completion.assignment());
+            log.info("Completed assignment {} (query {}, engineer {})", completion.assignment().getId(),
+                    completion.assignment().getQueryId(), completion.assignment().getEngineerId());
+        }
+        handOff(completions.stream().filter(c -> c.engineer().isPresent()).count());
+        failures.forEach((id, ex) -> log.warn("Could not complete assignment {}; it stays active: {}",
+                id, ex.getMessage()));
+        if (completed.isEmpty() && !failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+        return completed;
+    }
 
-        double priorityBoost = priority == Priority.P1 ? 2.0 : priority == Priority.P2 ? 1.0 : 0.0;
-        double complexityBuffer = complexity >= 3.6 && engineer.getDesignation() == Designation.TECH_LEAD ? 1.0 : 0.0;
+    private record Completion(Assignment assignment, Optional<SupportQuery> query, Optional<Engineer> engineer) {
+    }
 
-        return skillMatches * 2.0 + freeCapacity + designationFit + priorityBoost + complexityBuffer;
+    // The capacity is released last: a failure before it leaves nothing to undo but the completion itself.
+    private Optional<Completion> completeOne(String assignmentId, boolean transactional) {
+        Optional<Assignment> completed = assignmentRepository.complete(assignmentId);
+        if (completed.isEmpty()) {
+            return Optional.empty();
+        }
+        Assignment assignment = completed.get();
+        try {
+            Optional<SupportQuery> query = queryService.markResolved(assignment.getQueryId());
+            Optional<Engineer> engineer = assignment.getAllocationPercent() > 0
+                    ? engineerRepository.releaseCapacity(assignment.getEngineerId())
+                    : Optional.empty();
+            return Optional.of(new Completion(assignment, query, engineer));
+        } catch (RuntimeException ex) {
+            if (!transactional) {
+                assignmentRepository.reopen(assignmentId);
+            }
+            throw ex;
+        }
     }
 
-    private Designation targetDesignation(Double complexityScore) {
-        if (complexityScore == null) {
-            return Designation.MID;
+    // Freed capacity goes straight to the most urgent waiting queries instead of waiting for the next cycle. The
+    // hand-off runs off the completing request's thread.
+    private void handOff(long freed) {
+        if (freed == 0) {
+            return;
         }
-        if (complexityScore <= 2.0) {
-            return Designation.JUNIOR;
-        } else if (complexityScore <= 3.5) {
-            return Designation.MID;
-        } else {
-            return Designation.SENIOR;
+        Mono.fromRunnable(() -> placeWaiting(freed))
+                .subscribeOn(blockingScheduler)
+                .subscribe(null, err -> log.warn("Hand-off of {} freed slots failed; the next cycle will place "
+                        + "the waiting queries: {}", freed, err.getMessage()));
+    }
+
+    private void placeWaiting(long freed) {
+        RoutingMetrics.Cycle cycle = routingMetrics.startCycle("handoff");
+        List<SupportQuery> waiting = cycle.time(Phase.FETCH,
+                () -> queryService.findWaiting((int) freed, partitionCoordinator.ownedBuckets()));
+        if (!waiting.isEmpty()) {
+            log.debug("Handing {} freed slots to {} waiting queries", freed, waiting.size());
+            try {
+                place(waiting, cycle);
+            } finally {
+                cycle.stop();
+            }
         }
     }
 
-    private boolean isHigherSeniority(Designation candidate, Designation target) {
-        return rank(candidate) > rank(target);
+    public CursorPage<Object> listPage(AssignmentStatus status, String engineerId, ListParams params) {
+        return cursorPager.page(Assignment.class, listCriteria(status, engineerId, params), params);
     }
 
-    private int rank(Designation designation) {
-        return switch (designation) {
-            case JUNIOR -> 1;
-            case MID -> 2;
-            case SENIOR -> 3;
-            case TECH_LEAD -> 4;
-        };
+    public void streamAll(AssignmentStatus status, String engineerId, ListParams params, OutputStream out) {
+        cursorPager.stream(Assignment.class, listCriteria(status, engineerId, params), params, out);
     }
-}
 
+    Criteria listCriteria(AssignmentStatus status, String engineerId, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        if (engineerId != null) {
+            filters.add(Criteria.where("engineerId").is(engineerId));
+        }
+        return cursorPager.criteria(filters, "assignedAt", params);
+    }
+}
@@ -0,0 +1,361 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.AssignmentChangedEvent;
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.repository.EngineerRepository;
+import com.mongodb.bulk.BulkWriteError;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Commits a whole assignment cycle with a handful of bulk writes instead of three round trips per placement:
+ * <ol>
+ *   <li>one ordered bulk of conditional status changes (claims and escalations), tagged with a batch id so
+ *   a single {@code _id} lookup tells which ones applied;</li>
+ *   <li>one conditional capacity increment per engineer;</li>
+ *   <li>one unordered bulk insert of the new assignments.</li>
+ * </ol>
+ * On a replica set the batch runs in a transaction; if the transaction aborts, the batch is replayed without
+ * one, and failures are then handled and reported per item. The replay reuses the batch id and the assignment
+ * ids, so writes of the first attempt that did persist are recognized instead of applied twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentWriteBatcher {
+
+    private static final String BATCH_FIELD = "claim_id";
+    private static final List<QueryStatus> CLAIMABLE = List.of(QueryStatus.PENDING, QueryStatus.ESCALATED);
+
+    private final MongoTemplate mongoTemplate;
+    private final EngineerRepository engineerRepository;
+    private final EngineerIndex engineerIndex;
+    private final QueryService queryService;
+    private final MongoTransactions mongoTransactions;
+    private final RoutingMetrics routingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Batch begin() {
+        return new Batch();
+    }
+
+    public record Result(List<Assignment> assigned, List<SupportQuery> escalated, Map<String, String> failures) {
+    }
+
+    private record Placement(SupportQuery query, Engineer engineer, QueryStatus previousStatus, String assignmentId) {
+    }
+
+    private record Written(List<Placement> assigned,
+                           List<Assignment> assignments,
+                           List<String> escalated,
+                           Map<String, Engineer> engineers,
+                           Map<String, String> failures,
+                           int claimed,
+                           int overCapacity) {
+    }
+
+    /**
+     * Writes collected during one cycle. Not thread-safe; each cycle uses its own batch.
+     */
+    public final class Batch {
+
+        private final List<Placement> placements = new ArrayList<>();
+        private final List<SupportQuery> escalations = new ArrayList<>();
+        private final String batchId = new ObjectId().toHexString();
+        private boolean attempted;
+
+        /**
+         * Queues the placement and takes the capacity in the engineer index right away, so later selections in
+         * the same cycle see it. The tentative load is not published; {@link #flush} publishes what Mongo holds.
+         */
+        public void place(SupportQuery query, Engineer engineer) {
+            placements.add(new Placement(query, engineer, query.getStatus(), new ObjectId().toHexString()));
+            engineer.setCurrentLoad(engineer.getCurrentLoad() + 1);
+            engineerIndex.hold(engineer);
+        }
+
+        public void escalate(SupportQuery query) {
+            escalations.add(query);
+        }
+
+        public Result flush() {
+            if (placements.isEmpty() && escalations.isEmpty()) {
+                return new Result(List.of(), List.of(), Map.of());
+            }
+            Written written;
+            try {
+                written = mongoTransactions.execute(this::write);
+            } catch (RuntimeException ex) {
+                restoreLoads(Map.of());
+                throw ex;
+            }
+            return apply(written);
+        }
+
+        private Written write(boolean transactional) {
+            boolean replay = attempted;
+            attempted = true;
+            Map<String, String> failures = new LinkedHashMap<>();
+
+            List<String> ids = new ArrayList<>();
+            List<Query> filters = new ArrayList<>();
+            List<Update> updates = new ArrayList<>();
+            for (Placement placement : placements) {
+                ids.add(placement.query().getId());
+                filters.add(Query.query(Criteria.where("id").is(placement.query().getId()).orOperator(
+                        Criteria.where("status").in(CLAIMABLE), Criteria.where(BATCH_FIELD).is(batchId))));
+                updates.add(statusUpdate(QueryStatus.ASSIGNED, placement.query().getComplexityScore(), batchId));
+            }
+            for (SupportQuery query : escalations) {
+                ids.add(query.getId());
+                filters.add(Query.query(Criteria.where("id").is(query.getId()).orOperator(
+                        Criteria.where("status").is(QueryStatus.PENDING), Criteria.where(BATCH_FIELD).is(batchId))));
+                updates.add(statusUpdate(QueryStatus.ESCALATED, query.getComplexityScore(), batchId));
+            }
+            updateOrdered(ids, filters, updates, failures, transactional);
+            Map<String, QueryStatus> applied = appliedChanges(ids, batchId);
+            Map<String, Assignment> persisted = replay ? persistedAssignments(placements) : Map.of();
+
+            Map<String, List<Placement>> byEngineer = new LinkedHashMap<>();
+            List<Placement> assigned = new ArrayList<>(placements.size());
+            List<Assignment> inserted = new ArrayList<>(placements.size());
+            int claimed = 0;
+            for (Placement placement : placements) {
+                String queryId = placement.query().getId();
+                Assignment existing = persisted.get(placement.assignmentId());
+                if (existing != null) {
+                    // Claimed, reserved and inserted by the aborted attempt after all.
+                    assigned.add(placement);
+                    inserted.add(existing);
+                } else if (applied.get(queryId) == QueryStatus.ASSIGNED) {
+                    byEngineer.computeIfAbsent(placement.engineer().getId(), id -> new ArrayList<>()).add(placement);
+                } else {
+                    failures.putIfAbsent(queryId, "already taken by another cycle");
+                    claimed++;
+                }
+            }
+
+            Map<String, Engineer> engineers = new HashMap<>();
+            List<Placement> reserved = new ArrayList<>();
+            List<Placement> unreserved = new ArrayList<>();
+            byEngineer.forEach((engineerId, group) -> reserve(engineerId, group, engineers, reserved, unreserved));
+            unreserved.forEach(p -> failures.put(p.query().getId(),
+                    "engineer " + p.engineer().getId() + " at capacity"));
+            releaseClaims(unreserved, batchId);
+
+            List<Assignment> assignments = new ArrayList<>(reserved.size());
+            for (Placement placement : reserved) {
+                assignments.add(Assignment.builder()
+                        .id(placement.assignmentId())
+                        .engineerId(placement.engineer().getId())
+                        .queryId(placement.query().getId())
+                        .allocationPercent(1.0)
+                        .assignedAt(LocalDateTime.now())
+                        .status(AssignmentStatus.ACTIVE)
+                        .build());
+            }
+            Set<Integer> rejectedIndexes = insert(reserved, assignments, failures, transactional);
+            List<Placement> rejected = new ArrayList<>();
+            for (int i = 0; i < reserved.size(); i++) {
+                if (rejectedIndexes.contains(i)) {
+                    rejected.add(reserved.get(i));
+                    engineerRepository.releaseCapacity(reserved.get(i).engineer().getId())
+                            .ifPresent(e -> engineers.put(e.getId(), e));
+                } else {
+                    assigned.add(reserved.get(i));
+                    inserted.add(assignments.get(i));
+                }
+            }
+            releaseClaims(rejected, batchId);
+
+            List<String> escalated = escalations.stream()
+                    .map(SupportQuery::getId)
+                    .filter(id -> applied.get(id) == QueryStatus.ESCALATED)
+                    .toList();
+            return new Written(assigned, inserted, escalated, engineers, failures, claimed, unreserved.size());
+        }
+
+        private void reserve(String engineerId, List<Placement> group, Map<String, Engineer> engineers,
+                             List<Placement> reserved, List<Placement> unreserved) {
+            Optional<Engineer> all = engineerRepository.reserveCapacity(engineerId, group.size());
+            if (all.isPresent()) {
+                engineers.put(engineerId, all.get());
+                reserved.addAll(group);
+                return;
+            }
+            // Capacity changed since the plan was made; take what is left one unit at a time.
+            for (int i = 0; i < group.size(); i++) {
+                Optional<Engineer> one = engineerRepository.reserveCapacity(engineerId);
+                if (one.isEmpty()) {
+                    unreserved.addAll(group.subList(i, group.size()));
+                    return;
+                }
+                engineers.put(engineerId, one.get());
+                reserved.add(group.get(i));
+            }
+        }
+
+        private Result apply(Written written) {
+            for (Placement placement : written.assigned()) {
+                SupportQuery query = placement.query();
+                query.setStatus(QueryStatus.ASSIGNED);
+                queryService.publishStatusChanged(query);
+                log.info("Assigned query {} (score {}) to engineer {} ({})", query.getId(), query.getComplexityScore(),
+                        placement.engineer().getId(), placement.engineer().getDesignation());
+            }
+            written.assignments().forEach(assignment ->
+                    eventPublisher.publishEvent(new AssignmentChangedEvent(assignment)));
+            List<SupportQuery> escalated = new ArrayList<>();
+            for (SupportQuery query : escalations) {
+                if (written.escalated().contains(query.getId())) {
+                    query.setStatus(QueryStatus.ESCALATED);
+                    queryService.publishStatusChanged(query);
+                    escalated.add(query);
+                    log.warn("No available engineer; escalated query {}", query.getId());
+                }
+            }
+            restoreLoads(written.engineers());
+            written.failures().forEach((queryId, reason) ->
+                    log.warn("Could not assign query {}: {}", queryId, reason));
+            routingMetrics.rejected(RoutingMetrics.CLAIMED, written.claimed());
+            routingMetrics.rejected(RoutingMetrics.CAPACITY, written.overCapacity());
+            routingMetrics.escalated(RoutingMetrics.NO_ENGINEER, escalated.size());
+            return new Result(written.assignments(), escalated, written.failures());
+        }
+
+        // Replaces the tentative loads taken while planning with what Mongo actually holds, once per engineer.
+        private void restoreLoads(Map<String, Engineer> reserved) {
+            Set<String> engineerIds = new HashSet<>();
+            for (Placement placement : placements) {
+                String engineerId = placement.engineer().getId();
+                if (!engineerIds.add(engineerId)) {
+                    continue;
+                }
+                Engineer committed = reserved.get(engineerId);
+                if (committed != null) {
+                    engineerIndex.upsert(committed);
+                } else {
+                    engineerRepository.findById(engineerId).ifPresent(engineerIndex::upsert);
+                }
+            }
+        }
+    }
+
+    private Update statusUpdate(QueryStatus target, Double complexityScore, String batchId) {
+        Update update = new Update()
+                .set("status", target)
+                .set("updated_at", LocalDateTime.now())
+                .set(BATCH_FIELD, batchId);
+        if (complexityScore != null) {
+            update.set("complexityScore", complexityScore);
+        }
+        return update;
+    }
+
+    /**
+     * Runs the updates as an ordered bulk. A failing item is recorded and the bulk resumes after it, so one bad
+     * document does not drop the rest; inside a transaction the failure is rethrown instead.
+     */
+    private void updateOrdered(List<String> ids, List<Query> filters, List<Update> updates,
+                               Map<String, String> failures, boolean transactional) {
+        int from = 0;
+        while (from < ids.size()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkMode.ORDERED, SupportQuery.class);
+            for (int i = from; i < ids.size(); i++) {
+                ops.updateOne(filters.get(i), updates.get(i));
+            }
+            try {
+                ops.execute();
+                return;
+            } catch (BulkOperationException ex) {
+                if (transactional || ex.getErrors().isEmpty()) {
+                    throw ex;
+                }
+                BulkWriteError error = ex.getErrors().getFirst();
+                int failed = from + error.getIndex();
+                failures.put(ids.get(failed), error.getMessage());
+                from = failed + 1;
+            }
+        }
+    }
+
+    private Map<String, QueryStatus> appliedChanges(List<String> ids, String batchId) {
+        Query query = Query.query(Criteria.where("id").in(ids).and(BATCH_FIELD).is(batchId));
+        query.fields().include("id", "status");
+        Map<String, QueryStatus> applied = new HashMap<>();
+        mongoTemplate.find(query, SupportQuery.class).forEach(q -> applied.put(q.getId(), q.getStatus()));
+        return applied;
+    }
+
+    private Map<String, Assignment> persistedAssignments(List<Placement> placements) {
+        if (placements.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = placements.stream().map(Placement::assignmentId).toList();
+        Map<String, Assignment> persisted = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Assignment.class)
+                .forEach(a -> persisted.put(a.getId(), a));
+        return persisted;
+    }
+
+    private Set<Integer> insert(List<Placement> placements, List<Assignment> assignments,
+                                Map<String, String> failures, boolean transactional) {
+        if (assignments.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Assignment.class).insert(assignments).execute();
+            return Set.of();
+        } catch (BulkOperationException ex) {
+            if (transactional || ex.getErrors().isEmpty()) {
+                throw ex;
+            }
+            Set<Integer> rejected = new HashSet<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                rejected.add(error.getIndex());
+                failures.put(placements.get(error.getIndex()).query().getId(), error.getMessage());
+            }
+            return rejected;
+        }
+    }
+
+    private void releaseClaims(List<Placement> placements, String batchId) {
+        if (placements.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, SupportQuery.class);
+        for (Placement placement : placements) {
+            ops.updateOne(Query.query(Criteria.where("id").is(placement.query().getId())
+                            .and("status").is(QueryStatus.ASSIGNED)
+                            .and(BATCH_FIELD).is(batchId)),
+                    new Update()
+                            .set("status", placement.previousStatus())
+                            .set("updated_at", LocalDateTime.now())
+                            .unset(BATCH_FIELD));
+        }
+        ops.execute();
+    }
+}
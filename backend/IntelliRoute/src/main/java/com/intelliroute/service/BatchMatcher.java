@@ -0,0 +1,435 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.SupportQuery;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Solves one assignment cycle as a single capacity-constrained assignment problem using a forward auction.
+ *
+ * <p>Every free unit of engineer capacity is a slot. Taking the k-th slot of an engineer is worth the same
+ * score the greedy assigner would give at that moment (skill matches, designation fit, priority, complexity
+ * buffer and the engineer's free capacity after k earlier placements). Queries bid for slots until no query
+ * can improve by more than {@code epsilon}; queries left without a slot are escalated, as in greedy mode.
+ * Engineers are kept in pools per designation and per (skill, designation), ordered by the net value of their
+ * best slot, so a bid only looks at the heads of a few pools instead of a dense query-by-engineer matrix.
+ *
+ * <p>Scores are whole numbers, so the result is at most {@code epsilon} per placed query below the optimum;
+ * a larger {@code epsilon} means fewer bids and a faster solve.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchMatcher {
+
+    // Every score is at least 0, so this is enough for any placement to beat leaving a query unassigned.
+    private static final double PLACEMENT_BONUS = 1.0;
+
+    private static final int SKILL_MATCH_BONUS = 2;
+
+    private static final Designation[] DESIGNATIONS = Designation.values();
+
+    private final EngineerScorer engineerScorer;
+
+    @Value("${assignment.batch.epsilon:0.25}")
+    private double epsilon;
+
+    @Value("${assignment.batch.compare-greedy:true}")
+    private boolean compareGreedy;
+
+    public record Plan(Map<String, String> placements, double totalScore, Double greedyScore, long solveNanos) {
+    }
+
+    public Plan solve(List<SupportQuery> queries, Collection<Engineer> freeEngineers) {
+        long start = System.nanoTime();
+        Problem problem = new Problem(queries, freeEngineers);
+        problem.auction();
+        Map<String, String> placements = new LinkedHashMap<>();
+        double total = 0.0;
+        for (int q = 0; q < problem.queryCount; q++) {
+            int slot = problem.slotOfQuery[q];
+            if (slot >= 0) {
+                placements.put(queries.get(q).getId(), problem.engineers[problem.slotOwner[slot]].getId());
+                total += problem.benefit(q, slot) - PLACEMENT_BONUS;
+            }
+        }
+        long solveNanos = System.nanoTime() - start;
+        Double greedy = compareGreedy ? problem.greedyScore() : null;
+
+        if (greedy != null) {
+            log.info("Batch matching placed {}/{} queries in {} ms, score {} (greedy {}, gain {})",
+                    placements.size(), queries.size(), solveNanos / 1_000_000, round(total), round(greedy),
+                    round(total - greedy));
+        } else {
+            log.info("Batch matching placed {}/{} queries in {} ms, score {}",
+                    placements.size(), queries.size(), solveNanos / 1_000_000, round(total));
+        }
+        return new Plan(placements, total, greedy, solveNanos);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private final class Problem {
+
+        final int queryCount;
+        final Engineer[] engineers;
+        final int[] designationOf;
+        final int[] freeOf;
+        final int[] firstSlot;
+        final int[] slotOwner;
+        final int[] slotValue;
+        final double[] price;
+        final int[] queryOfSlot;
+        final int[] slotOfQuery;
+
+        // Per engineer: the slot with the highest value minus price, and the net values of the two best slots.
+        final int[] bestSlot;
+        final double[] bestNet;
+        final double[] secondNet;
+
+        // Per query: designation-only score per designation, the engineers (sorted) sharing at least one tag,
+        // and the query's tags as indexes into the skill dictionary.
+        final double[][] designationBase;
+        final int[][] skillEngineers;
+        final int[][] skillBonus;
+        final int[][] multiMatchEngineers;
+        final int[][] tagIds;
+
+        final int[][] skillsOf;
+        final List<TreeSet<Integer>> pools;
+        final List<List<TreeSet<Integer>>> skillPools;
+        final int[] visited;
+        int bid;
+
+        Problem(List<SupportQuery> queries, Collection<Engineer> freeEngineers) {
+            queryCount = queries.size();
+            engineers = freeEngineers.toArray(Engineer[]::new);
+            int engineerCount = engineers.length;
+            designationOf = new int[engineerCount];
+            freeOf = new int[engineerCount];
+            firstSlot = new int[engineerCount + 1];
+            for (int e = 0; e < engineerCount; e++) {
+                designationOf[e] = engineers[e].getDesignation().ordinal();
+                freeOf[e] = Math.max(0, engineers[e].getCapacity() - engineers[e].getCurrentLoad());
+                firstSlot[e + 1] = firstSlot[e] + freeOf[e];
+            }
+            int slots = firstSlot[engineerCount];
+            slotOwner = new int[slots];
+            slotValue = new int[slots];
+            price = new double[slots];
+            queryOfSlot = new int[slots];
+            Arrays.fill(queryOfSlot, -1);
+            slotOfQuery = new int[queryCount];
+            Arrays.fill(slotOfQuery, -1);
+            bestSlot = new int[engineerCount];
+            bestNet = new double[engineerCount];
+            secondNet = new double[engineerCount];
+            visited = new int[engineerCount];
+            Arrays.fill(visited, -1);
+            for (int e = 0; e < engineerCount; e++) {
+                for (int k = 0; k < freeOf[e]; k++) {
+                    int slot = firstSlot[e] + k;
+                    slotOwner[slot] = e;
+                    slotValue[slot] = freeOf[e] - k;
+                }
+                refreshEngineer(e);
+            }
+
+            Map<String, Integer> skillIds = new HashMap<>();
+            List<List<Integer>> holders = new ArrayList<>();
+            skillsOf = new int[engineerCount][];
+            for (int e = 0; e < engineerCount; e++) {
+                Set<String> skills = CollectionUtils.isEmpty(engineers[e].getSkills())
+                        ? Set.of() : engineers[e].getSkills();
+                skillsOf[e] = new int[skills.size()];
+                int i = 0;
+                for (String skill : skills) {
+                    int id = skillIds.computeIfAbsent(skill, s -> {
+                        holders.add(new ArrayList<>());
+                        return holders.size() - 1;
+                    });
+                    holders.get(id).add(e);
+                    skillsOf[e][i++] = id;
+                }
+            }
+
+            Comparator<Integer> byNetValue = Comparator
+                    .comparingDouble((Integer e) -> bestNet[e]).reversed()
+                    .thenComparingInt(e -> e);
+            pools = new ArrayList<>(DESIGNATIONS.length);
+            for (int d = 0; d < DESIGNATIONS.length; d++) {
+                pools.add(new TreeSet<>(byNetValue));
+            }
+            skillPools = new ArrayList<>(holders.size());
+            for (int s = 0; s < holders.size(); s++) {
+                List<TreeSet<Integer>> byDesignation = new ArrayList<>(DESIGNATIONS.length);
+                for (int d = 0; d < DESIGNATIONS.length; d++) {
+                    byDesignation.add(new TreeSet<>(byNetValue));
+                }
+                skillPools.add(byDesignation);
+            }
+            for (int e = 0; e < engineerCount; e++) {
+                addToPools(e);
+            }
+
+            designationBase = new double[queryCount][];
+            skillEngineers = new int[queryCount][];
+            skillBonus = new int[queryCount][];
+            multiMatchEngineers = new int[queryCount][];
+            tagIds = new int[queryCount][];
+            Map<Integer, Integer> matches = new TreeMap<>();
+            for (int q = 0; q < queryCount; q++) {
+                SupportQuery query = queries.get(q);
+                double complexity = query.getComplexityScore() == null ? 0.0 : query.getComplexityScore();
+                Designation target = engineerScorer.targetDesignation(query.getComplexityScore());
+                designationBase[q] = new double[DESIGNATIONS.length];
+                for (Designation designation : DESIGNATIONS) {
+                    designationBase[q][designation.ordinal()] = PLACEMENT_BONUS
+                            + engineerScorer.designationScore(designation, target, query.getPriority(), complexity);
+                }
+
+                matches.clear();
+                List<Integer> known = new ArrayList<>();
+                for (String tag : Set.copyOf(query.getTags() == null ? List.of() : query.getTags())) {
+                    Integer id = skillIds.get(tag);
+                    if (id == null) {
+                        continue;
+                    }
+                    known.add(id);
+                    for (int e : holders.get(id)) {
+                        matches.merge(e, 1, Integer::sum);
+                    }
+                }
+                tagIds[q] = known.stream().mapToInt(Integer::intValue).toArray();
+                skillEngineers[q] = new int[matches.size()];
+                skillBonus[q] = new int[matches.size()];
+                int i = 0;
+                for (Map.Entry<Integer, Integer> entry : matches.entrySet()) {
+                    skillEngineers[q][i] = entry.getKey();
+                    skillBonus[q][i] = entry.getValue() * SKILL_MATCH_BONUS;
+                    i++;
+                }
+                multiMatchEngineers[q] = matches.entrySet().stream()
+                        .filter(entry -> entry.getValue() > 1)
+                        .mapToInt(Map.Entry::getKey)
+                        .toArray();
+            }
+        }
+
+        double benefit(int q, int slot) {
+            int e = slotOwner[slot];
+            return designationBase[q][designationOf[e]] + slotValue[slot] + bonus(q, e);
+        }
+
+        private int bonus(int q, int engineer) {
+            int i = Arrays.binarySearch(skillEngineers[q], engineer);
+            return i >= 0 ? skillBonus[q][i] : 0;
+        }
+
+        private void refreshEngineer(int e) {
+            bestSlot[e] = -1;
+            bestNet[e] = Double.NEGATIVE_INFINITY;
+            secondNet[e] = Double.NEGATIVE_INFINITY;
+            for (int slot = firstSlot[e]; slot < firstSlot[e + 1]; slot++) {
+                double net = slotValue[slot] - price[slot];
+                if (net > bestNet[e]) {
+                    secondNet[e] = bestNet[e];
+                    bestNet[e] = net;
+                    bestSlot[e] = slot;
+                } else if (net > secondNet[e]) {
+                    secondNet[e] = net;
+                }
+            }
+        }
+
+        private void addToPools(int e) {
+            if (bestSlot[e] < 0) {
+                return;
+            }
+            pools.get(designationOf[e]).add(e);
+            for (int s : skillsOf[e]) {
+                skillPools.get(s).get(designationOf[e]).add(e);
+            }
+        }
+
+        private void removeFromPools(int e) {
+            pools.get(designationOf[e]).remove(e);
+            for (int s : skillsOf[e]) {
+                skillPools.get(s).get(designationOf[e]).remove(e);
+            }
+        }
+
+        void auction() {
+            Deque<Integer> unassigned = new ArrayDeque<>();
+            for (int q = 0; q < queryCount; q++) {
+                unassigned.add(q);
+            }
+            while (!unassigned.isEmpty()) {
+                int q = unassigned.poll();
+                Bid offer = new Bid();
+                bid++;
+
+                // Engineers matching several tags are few, so they are checked directly.
+                for (int e : multiMatchEngineers[q]) {
+                    if (bestSlot[e] >= 0) {
+                        visited[e] = bid;
+                        double value = designationBase[q][designationOf[e]] + bonus(q, e);
+                        offer.consider(e, value + bestNet[e], value + secondNet[e]);
+                    }
+                }
+                // Engineers matching one tag: pools are ordered by net value, so stop once nothing further
+                // down could beat the current second best.
+                for (int s : tagIds[q]) {
+                    for (int d = 0; d < DESIGNATIONS.length; d++) {
+                        double base = designationBase[q][d] + SKILL_MATCH_BONUS;
+                        for (int e : skillPools.get(s).get(d)) {
+                            if (base + bestNet[e] <= offer.second) {
+                                break;
+                            }
+                            if (visited[e] != bid) {
+                                visited[e] = bid;
+                                offer.consider(e, base + bestNet[e], base + secondNet[e]);
+                            }
+                        }
+                    }
+                }
+                // Everyone else: the two best engineers per designation cover the best and second best slot.
+                for (int d = 0; d < DESIGNATIONS.length; d++) {
+                    double base = designationBase[q][d];
+                    int taken = 0;
+                    for (int e : pools.get(d)) {
+                        if (base + bestNet[e] <= offer.second) {
+                            break;
+                        }
+                        if (visited[e] == bid || bonus(q, e) > 0) {
+                            continue;
+                        }
+                        visited[e] = bid;
+                        offer.consider(e, base + bestNet[e], base + secondNet[e]);
+                        if (++taken == 2) {
+                            break;
+                        }
+                    }
+                }
+
+                if (offer.engineer < 0) {
+                    continue;
+                }
+                int e = offer.engineer;
+                int slot = bestSlot[e];
+                removeFromPools(e);
+                price[slot] += offer.best - offer.second + epsilon;
+                refreshEngineer(e);
+                addToPools(e);
+
+                int previous = queryOfSlot[slot];
+                if (previous >= 0) {
+                    slotOfQuery[previous] = -1;
+                    unassigned.add(previous);
+                }
+                queryOfSlot[slot] = q;
+                slotOfQuery[q] = slot;
+            }
+        }
+
+        /**
+         * Replays the greedy assigner on the same snapshot, in the same order, without persisting anything.
+         */
+        double greedyScore() {
+            int[] load = new int[engineers.length];
+            Comparator<Integer> byFreeCapacity = Comparator
+                    .comparingInt((Integer e) -> freeOf[e] - load[e]).reversed()
+                    .thenComparing(Comparator.comparingInt((Integer e) -> engineers[e].getCurrentLoad() + load[e])
+                            .reversed())
+                    .thenComparingInt(e -> e);
+            List<TreeSet<Integer>> free = new ArrayList<>();
+            for (int d = 0; d < DESIGNATIONS.length; d++) {
+                free.add(new TreeSet<>(byFreeCapacity));
+            }
+            for (int e = 0; e < engineers.length; e++) {
+                if (freeOf[e] > 0) {
+                    free.get(designationOf[e]).add(e);
+                }
+            }
+
+            double total = 0.0;
+            for (int q = 0; q < queryCount; q++) {
+                int chosen = -1;
+                double best = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < skillEngineers[q].length; i++) {
+                    int e = skillEngineers[q][i];
+                    if (freeOf[e] - load[e] > 0) {
+                        double score = designationBase[q][designationOf[e]] + skillBonus[q][i] + freeOf[e] - load[e];
+                        if (score > best) {
+                            best = score;
+                            chosen = e;
+                        }
+                    }
+                }
+                for (int d = 0; d < DESIGNATIONS.length; d++) {
+                    TreeSet<Integer> candidates = free.get(d);
+                    if (!candidates.isEmpty()) {
+                        int e = candidates.first();
+                        double score = designationBase[q][d] + freeOf[e] - load[e];
+                        if (score > best) {
+                            best = score;
+                            chosen = e;
+                        }
+                    }
+                }
+                if (chosen < 0) {
+                    continue;
+                }
+                TreeSet<Integer> pool = free.get(designationOf[chosen]);
+                pool.remove(chosen);
+                load[chosen]++;
+                if (freeOf[chosen] - load[chosen] > 0) {
+                    pool.add(chosen);
+                }
+                total += best - PLACEMENT_BONUS;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Best and second best option seen while a query prepares its bid. Leaving the query unassigned is always
+     * an option worth 0.
+     */
+    private static final class Bid {
+
+        int engineer = -1;
+        double best;
+        double second;
+
+        void consider(int candidate, double value, double valueOfSecondSlot) {
+            if (value > best) {
+                second = Math.max(best, valueOfSecondSlot);
+                best = value;
+                engineer = candidate;
+            } else if (value > second) {
+                second = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.EngineerCapacityChangedEvent;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.model.SupportQuery;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the dispatcher from Mongo change streams, so a node also reacts to queries created and engineers
+ * changed on other nodes, including load reserved or released by their assignment cycles, which keeps the
+ * {@link EngineerIndex} current across replicas. Requires a replica set.
+ */
+@Component
+@ConditionalOnProperty(name = "assignment.dispatch.change-streams", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeStreamIngestor {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private MessageListenerContainer container;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.register(ChangeStreamRequest.builder(this::onQueryInserted)
+                .collection("queries")
+                .filter(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("operationType").is("insert"))))
+                .build(), Document.class);
+        container.register(ChangeStreamRequest.builder(this::onEngineerChanged)
+                .collection("engineers")
+                .filter(Aggregation.newAggregation(Aggregation.match(new Criteria().orOperator(
+                        Criteria.where("operationType").in("insert", "replace"),
+                        Criteria.where("updateDescription.updatedFields.capacity").exists(true),
+                        Criteria.where("updateDescription.updatedFields.currentLoad").exists(true),
+                        Criteria.where("updateDescription.updatedFields.available").exists(true),
+                        Criteria.where("updateDescription.updatedFields.skills").exists(true),
+                        Criteria.where("updateDescription.updatedFields.designation").exists(true)))))
+                .build(), Document.class);
+        container.start();
+        log.info("Listening to Mongo change streams for assignment dispatch");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    private void onQueryInserted(Message<ChangeStreamDocument<Document>, Document> message) {
+        Document document = message.getBody();
+        if (document != null) {
+            SupportQuery query = mongoTemplate.getConverter().read(SupportQuery.class, document);
+            eventPublisher.publishEvent(new QueryCreatedEvent(query));
+        }
+    }
+
+    private void onEngineerChanged(Message<ChangeStreamDocument<Document>, Document> message) {
+        String id = documentId(message.getRaw());
+        if (id != null) {
+            eventPublisher.publishEvent(new EngineerCapacityChangedEvent(id));
+        }
+    }
+
+    private static String documentId(ChangeStreamDocument<Document> change) {
+        BsonDocument key = change == null ? null : change.getDocumentKey();
+        BsonValue id = key == null ? null : key.get("_id");
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
@@ -0,0 +1,443 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.ComplexityScoreEntry;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.repository.ComplexityScoreRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Linear regression over hashed word unigrams and bigrams, trained in the background on resolved queries.
+ * The label is the Gemini score cached for the description (so training needs {@code ai.cache.persistent}).
+ * Queries without one are skipped: their stored score came from the heuristic or from this model, and learning
+ * it would only reinforce the model's own predictions. Training is incremental: each pass reads the queries
+ * resolved since the last one, updates a copy of the weights by SGD and swaps it in, then writes the model to
+ * {@code ai.model.path} so restarts resume where they left off. Scoring walks the raw description once per pass
+ * and allocates nothing.
+ * <p>
+ * The model is only trusted once it has seen {@code ai.model.min-examples} queries with a running
+ * (predict-then-train) error under {@code ai.model.max-rmse}, and per query only when enough of its features
+ * were seen in training; {@link #predictConfident} returns {@code NaN} otherwise.
+ */
+@Component
+@Slf4j
+public class ComplexityModel implements ComplexityScorer {
+
+    public static final String NAME = "model";
+
+    public enum Mode {
+        // Not trained and never consulted.
+        OFF,
+        // Used instead of the keyword heuristic for queries no scorer of the chain answered.
+        FALLBACK,
+        // As FALLBACK, and placed ahead of Gemini in the default chain, so confident predictions skip it.
+        GATE
+    }
+
+    private static final int MAGIC = 0x49524d31;
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int LENGTH_SEED = 0x5bd1e995;
+    private static final double MIN_SCORE = 1.0;
+    private static final double MAX_SCORE = 5.0;
+    private static final double ERROR_DECAY = 0.01;
+
+    private static final int SUM = 0;
+    private static final int KNOWN = 1;
+    private static final int COUNT = 2;
+    private static final int ADD = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final ComplexityScoreRepository complexityScoreRepository;
+    private final Scheduler blockingScheduler;
+    private final Mode mode;
+    private final Path path;
+    private final int featureBits;
+    private final int batchSize;
+    private final float learningRate;
+    private final long minExamples;
+    private final double maxRmse;
+    private final double minCoverage;
+    private final String geminiModel;
+    private final AtomicBoolean training = new AtomicBoolean();
+
+    private volatile Weights model;
+
+    public ComplexityModel(MongoTemplate mongoTemplate,
+                           ComplexityScoreRepository complexityScoreRepository,
+                           MeterRegistry meterRegistry,
+                           Scheduler blockingScheduler,
+                           @Value("${ai.model.mode:off}") Mode mode,
+                           @Value("${ai.model.path:}") String path,
+                           @Value("${ai.model.feature-bits:18}") int featureBits,
+                           @Value("${ai.model.batch-size:5000}") int batchSize,
+                           @Value("${ai.model.learning-rate:0.05}") double learningRate,
+                           @Value("${ai.model.min-examples:500}") long minExamples,
+                           @Value("${ai.model.max-rmse:0.5}") double maxRmse,
+                           @Value("${ai.model.min-coverage:0.6}") double minCoverage,
+                           @Value("${ai.gemini.model:gemini-1.5-flash}") String geminiModel) {
+        this.mongoTemplate = mongoTemplate;
+        this.complexityScoreRepository = complexityScoreRepository;
+        this.blockingScheduler = blockingScheduler;
+        this.mode = mode;
+        this.path = StringUtils.hasText(path) ? Path.of(path) : null;
+        this.featureBits = Math.max(10, Math.min(featureBits, 24));
+        this.batchSize = Math.max(1, batchSize);
+        this.learningRate = (float) learningRate;
+        this.minExamples = minExamples;
+        this.maxRmse = maxRmse;
+        this.minCoverage = minCoverage;
+        this.geminiModel = geminiModel;
+        this.model = Weights.empty(this.featureBits);
+        Gauge.builder("intelliroute.scoring.model.examples", this, m -> m.model.examples)
+                .description("Resolved queries the local complexity model was trained on")
+                .register(meterRegistry);
+        Gauge.builder("intelliroute.scoring.model.rmse", this, m -> m.model.rmse)
+                .description("Running prediction error of the local complexity model")
+                .register(meterRegistry);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Answers only with {@link #predictConfident confident} predictions.
+     */
+    @Override
+    public Mono<Double> predict(String description) {
+        return Mono.fromSupplier(() -> {
+            double score = predictConfident(description);
+            return Double.isNaN(score) ? null : score;
+        });
+    }
+
+    /**
+     * Whether the model has seen enough queries, with a low enough error, to stand in for Gemini.
+     */
+    public boolean ready() {
+        Weights current = model;
+        return mode != Mode.OFF && current.examples >= minExamples && current.rmse <= maxRmse;
+    }
+
+    /**
+     * Predicted score, rounded like the heuristic one, or {@code NaN} before the model has been trained.
+     */
+    public double score(String description) {
+        Weights current = model;
+        if (current.examples == 0) {
+            return Double.NaN;
+        }
+        return predict(current, description == null ? "" : description);
+    }
+
+    /**
+     * Like {@link #score}, but {@code NaN} unless the model is {@link #ready} and at least
+     * {@code ai.model.min-coverage} of the description's features were seen in training, i.e. unless the
+     * query is unambiguous enough to skip the remote call.
+     */
+    public double predictConfident(String description) {
+        if (!ready() || description == null) {
+            return Double.NaN;
+        }
+        Weights current = model;
+        double features = walk(description, current.weights, COUNT, 0f);
+        double known = walk(description, current.weights, KNOWN, 0f);
+        return known / features >= minCoverage ? predict(current, description) : Double.NaN;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (mode == Mode.OFF || path == null || !Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            Weights loaded = read(in);
+            if (loaded == null) {
+                log.warn("Ignoring complexity model {}: different format or feature size", path);
+                return;
+            }
+            model = loaded;
+            log.info("Loaded complexity model trained on {} queries (rmse {})", loaded.examples,
+                    String.format("%.3f", loaded.rmse));
+        } catch (IOException ex) {
+            log.warn("Could not load complexity model {}: {}", path, ex.getMessage());
+        }
+    }
+
+    // Training runs off the scheduling thread, so a long first pass does not hold up the assignment jobs.
+    @Scheduled(initialDelayString = "${ai.model.initial-delay-ms:10000}",
+            fixedDelayString = "${ai.model.retrain-ms:300000}")
+    public void scheduleTraining() {
+        if (mode == Mode.OFF || !training.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromRunnable(this::train)
+                .subscribeOn(blockingScheduler)
+                .doFinally(signal -> training.set(false))
+                .subscribe(null, err -> log.warn("Complexity model training failed: {}", err.getMessage()));
+    }
+
+    /**
+     * Trains on every query resolved since the last pass, in batches of {@code ai.model.batch-size}, and saves
+     * the model if anything was learned.
+     */
+    public void train() {
+        Weights current = model;
+        Weights next = current.copy();
+        List<SupportQuery> batch;
+        do {
+            batch = resolvedSince(next.trainedUntil, next.lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<String, Double> geminiScores = geminiScores(batch);
+            for (SupportQuery query : batch) {
+                Double label = geminiScores.get(query.getId());
+                if (label != null && query.getDescription() != null) {
+                    learn(next, query.getDescription(), label);
+                }
+                next.trainedUntil = query.getUpdatedAt();
+                next.lastId = query.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        if (next.examples == current.examples) {
+            return;
+        }
+        model = next;
+        log.info("Complexity model trained on {} new queries ({} total, rmse {})",
+                next.examples - current.examples, next.examples, String.format("%.3f", next.rmse));
+        save(next);
+    }
+
+    private List<SupportQuery> resolvedSince(LocalDateTime since, String lastId) {
+        Criteria criteria = Criteria.where("status").is(QueryStatus.RESOLVED);
+        if (since != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("updatedAt").gt(since),
+                    Criteria.where("updatedAt").is(since).and("id").gt(lastId));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by("updatedAt", "id"))
+                .limit(batchSize);
+        query.fields().include("description", "updatedAt");
+        return mongoTemplate.find(query, SupportQuery.class);
+    }
+
+    /**
+     * Gemini scores cached for the batch, by query id; the only labels the model learns from.
+     */
+    private Map<String, Double> geminiScores(List<SupportQuery> batch) {
+        Map<String, String> queryByKey = new HashMap<>();
+        batch.forEach(query -> queryByKey.put(ComplexityScoreCache.key(geminiModel, query.getDescription()),
+                query.getId()));
+        Map<String, Double> scores = new HashMap<>();
+        for (ComplexityScoreEntry entry : complexityScoreRepository.findAllById(queryByKey.keySet())) {
+            scores.put(queryByKey.get(entry.getId()), entry.getScore());
+        }
+        return scores;
+    }
+
+    private void learn(Weights target, String description, double label) {
+        double scale = 1.0 / Math.sqrt(walk(description, target.weights, COUNT, 0f));
+        double error = label - (target.bias + walk(description, target.weights, SUM, 0f) * scale);
+        target.rmse = target.examples == 0
+                ? Math.abs(error)
+                : Math.sqrt((1 - ERROR_DECAY) * target.rmse * target.rmse + ERROR_DECAY * error * error);
+        target.bias += learningRate * error;
+        walk(description, target.weights, ADD, (float) (learningRate * error * scale));
+        target.examples++;
+    }
+
+    private static double predict(Weights weights, String description) {
+        double scale = 1.0 / Math.sqrt(walk(description, weights.weights, COUNT, 0f));
+        double score = weights.bias + walk(description, weights.weights, SUM, 0f) * scale;
+        score = Math.max(MIN_SCORE, Math.min(score, MAX_SCORE));
+        return Math.round(score * 100.0) / 100.0;
+    }
+
+    /**
+     * Visits every feature of the text: each word (a run of letters and digits, case-folded), each pair of
+     * adjacent words, and a bucket of the word count. Depending on {@code op} it returns the sum of their
+     * weights, how many have a weight, or how many there are, or adds {@code delta} to each weight.
+     */
+    private static double walk(String text, float[] weights, int op, float delta) {
+        int mask = weights.length - 1;
+        double result = 0;
+        int words = 0;
+        int previous = 0;
+        int hash = FNV_OFFSET;
+        boolean inWord = false;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+                continue;
+            }
+            if (!inWord) {
+                continue;
+            }
+            result += visit(weights, mix(hash) & mask, op, delta);
+            if (words > 0) {
+                result += visit(weights, mix(previous * 31 + hash) & mask, op, delta);
+            }
+            previous = hash;
+            hash = FNV_OFFSET;
+            inWord = false;
+            words++;
+        }
+        int lengthBucket = 32 - Integer.numberOfLeadingZeros(words);
+        return result + visit(weights, mix(LENGTH_SEED + lengthBucket) & mask, op, delta);
+    }
+
+    private static double visit(float[] weights, int index, int op, float delta) {
+        return switch (op) {
+            case SUM -> weights[index];
+            case KNOWN -> weights[index] != 0f ? 1 : 0;
+            case COUNT -> 1;
+            default -> {
+                weights[index] += delta;
+                yield 0;
+            }
+        };
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void save(Weights weights) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "complexity-model", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(weights, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not save complexity model to {}: {}", path, ex.getMessage());
+        }
+    }
+
+    // Sparse: only the features seen in training are written.
+    private void write(Weights weights, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(featureBits);
+        out.writeDouble(weights.bias);
+        out.writeLong(weights.examples);
+        out.writeDouble(weights.rmse);
+        out.writeLong(weights.trainedUntil == null
+                ? -1 : weights.trainedUntil.toInstant(ZoneOffset.UTC).toEpochMilli());
+        out.writeUTF(weights.lastId == null ? "" : weights.lastId);
+        int nonZero = 0;
+        for (float weight : weights.weights) {
+            if (weight != 0f) {
+                nonZero++;
+            }
+        }
+        out.writeInt(nonZero);
+        for (int i = 0; i < weights.weights.length; i++) {
+            if (weights.weights[i] != 0f) {
+                out.writeInt(i);
+                out.writeFloat(weights.weights[i]);
+            }
+        }
+    }
+
+    private Weights read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != featureBits) {
+            return null;
+        }
+        Weights weights = Weights.empty(featureBits);
+        weights.bias = in.readDouble();
+        weights.examples = in.readLong();
+        weights.rmse = in.readDouble();
+        long until = in.readLong();
+        weights.trainedUntil = until < 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(until), ZoneOffset.UTC);
+        String lastId = in.readUTF();
+        weights.lastId = lastId.isEmpty() ? null : lastId;
+        int nonZero = in.readInt();
+        for (int i = 0; i < nonZero; i++) {
+            weights.weights[in.readInt()] = in.readFloat();
+        }
+        return weights;
+    }
+
+    /**
+     * Mutable while a training pass owns it, read-only once published through {@link #model}.
+     */
+    private static final class Weights {
+        private final float[] weights;
+        private double bias;
+        private long examples;
+        private double rmse;
+        private LocalDateTime trainedUntil;
+        private String lastId;
+
+        private Weights(float[] weights) {
+            this.weights = weights;
+        }
+
+        static Weights empty(int featureBits) {
+            Weights empty = new Weights(new float[1 << featureBits]);
+            empty.bias = (MIN_SCORE + MAX_SCORE) / 2;
+            empty.rmse = Double.NaN;
+            return empty;
+        }
+
+        Weights copy() {
+            Weights copy = new Weights(weights.clone());
+            copy.bias = bias;
+            copy.examples = examples;
+            copy.rmse = rmse;
+            copy.trainedUntil = trainedUntil;
+            copy.lastId = lastId;
+            return copy;
+        }
+    }
+}
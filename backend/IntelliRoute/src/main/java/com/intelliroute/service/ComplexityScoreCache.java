@@ -0,0 +1,163 @@
+package com.intelliroute.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.intelliroute.model.ComplexityScoreEntry;
+import com.intelliroute.repository.ComplexityScoreRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Two-tier cache of complexity scores keyed by a hash of the model name and the normalized description:
+ * a bounded in-heap Caffeine cache (W-TinyLFU eviction) in front of the {@code complexity_scores} collection,
+ * which survives restarts and expires entries through a TTL index.
+ */
+@Component
+@Slf4j
+public class ComplexityScoreCache {
+
+    private final ComplexityScoreRepository complexityScoreRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Scheduler blockingScheduler;
+    private final boolean enabled;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Cache<String, Double> memory;
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+
+    public ComplexityScoreCache(ComplexityScoreRepository complexityScoreRepository,
+                                MongoTemplate mongoTemplate,
+                                MeterRegistry meterRegistry,
+                                Scheduler blockingScheduler,
+                                @Value("${ai.cache.enabled:true}") boolean enabled,
+                                @Value("${ai.cache.persistent:true}") boolean persistent,
+                                @Value("${ai.cache.max-size:10000}") long maxSize,
+                                @Value("${ai.cache.ttl:7d}") Duration ttl) {
+        this.complexityScoreRepository = complexityScoreRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.blockingScheduler = blockingScheduler;
+        this.enabled = enabled;
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "complexityScores");
+        this.persistentHits = Counter.builder("intelliroute.scoring.cache.persistent")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.persistentMisses = Counter.builder("intelliroute.scoring.cache.persistent")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        if (!enabled || !persistent) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(ComplexityScoreEntry.class)
+                    .ensureIndex(new Index().on("created_at", Sort.Direction.ASC).expire(ttl));
+        } catch (RuntimeException ex) {
+            log.warn("Could not create TTL index for complexity score cache: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Looks the score up in memory, then in Mongo; a Mongo hit is promoted to memory.
+     */
+    public Mono<Double> get(String model, String description) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        String key = key(model, description);
+        Double cached = memory.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (!persistent) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> findPersisted(key))
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::justOrEmpty)
+                .onErrorResume(err -> {
+                    log.warn("Complexity score cache lookup failed: {}", err.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> put(String model, String description, double score) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        String key = key(model, description);
+        memory.put(key, score);
+        if (!persistent) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> complexityScoreRepository.save(ComplexityScoreEntry.builder()
+                        .id(key)
+                        .model(model)
+                        .score(score)
+                        .build()))
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(err -> {
+                    log.warn("Could not persist complexity score: {}", err.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Optional<Double> findPersisted(String key) {
+        Optional<Double> score = complexityScoreRepository.findById(key)
+                .filter(entry -> entry.getCreatedAt() == null
+                        || entry.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(ComplexityScoreEntry::getScore);
+        if (score.isPresent()) {
+            persistentHits.increment();
+            memory.put(key, score.get());
+        } else {
+            persistentMisses.increment();
+        }
+        return score;
+    }
+
+    static String key(String model, String description) {
+        String normalized = description == null
+                ? ""
+                : description.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(model).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.intelliroute.service;
+
+import java.util.Arrays;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of complexity scores. {@link AIClient} asks the scorers named in {@code ai.scoring.chain} in order
+ * and takes the first answer. A scorer that cannot answer, because it is not configured, unavailable or unsure,
+ * completes empty; errors are counted and treated the same way.
+ */
+public interface ComplexityScorer {
+
+    int DEFAULT_BATCH_CONCURRENCY = 16;
+
+    /**
+     * Name used in {@code ai.scoring.chain} and as the {@code source} tag of the scoring metrics.
+     */
+    String name();
+
+    Mono<Double> predict(String description);
+
+    /**
+     * Scores many descriptions at once. The result holds one entry per description, {@code null} where this
+     * scorer has no answer. By default the descriptions are scored one by one.
+     */
+    default Mono<List<Double>> predictBatch(List<String> descriptions) {
+        Double[] scores = new Double[descriptions.size()];
+        return Flux.range(0, descriptions.size())
+                .flatMap(i -> predict(descriptions.get(i)).doOnNext(score -> scores[i] = score),
+                        DEFAULT_BATCH_CONCURRENCY)
+                .then(Mono.fromSupplier(() -> Arrays.asList(scores)));
+    }
+
+    /**
+     * Whether {@link #predictBatch} does better than one call per description.
+     */
+    default boolean batches() {
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+package com.intelliroute.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset pagination and NDJSON streaming over a Mongo collection. Pages are ordered by {@code _id} and the
+ * cursor is the last id of the previous page, so every page is an index range scan regardless of how deep
+ * the client has paged. Streams read from a Mongo cursor and write one document per line, keeping memory
+ * flat for any collection size.
+ */
+@Component
+public class CursorPager {
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public CursorPager(MongoTemplate mongoTemplate,
+                       ObjectMapper objectMapper,
+                       @Value("${api.pagination.default-limit:500}") int defaultLimit,
+                       @Value("${api.pagination.max-limit:5000}") int maxLimit) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Builds the filter shared by paging and streaming: the given criteria plus the {@code from}/{@code to}
+     * range on {@code dateProperty}.
+     */
+    public Criteria criteria(List<Criteria> filters, String dateProperty, ListParams params) {
+        List<Criteria> all = new ArrayList<>(filters);
+        if (params.getFrom() != null || params.getTo() != null) {
+            Criteria range = Criteria.where(dateProperty);
+            if (params.getFrom() != null) {
+                range = range.gte(params.getFrom());
+            }
+            if (params.getTo() != null) {
+                range = range.lt(params.getTo());
+            }
+            all.add(range);
+        }
+        return all.isEmpty() ? new Criteria() : new Criteria().andOperator(all);
+    }
+
+    public <T> CursorPage<Object> page(Class<T> type, Criteria criteria, ListParams params) {
+        Query query = pageQuery(criteria, params);
+        Set<String> fields = project(type, query, params.getFields());
+        return toPage(mongoTemplate.find(query, type), limit(params), fields);
+    }
+
+    public <T> void stream(Class<T> type, Criteria criteria, ListParams params, OutputStream out) {
+        Query query = streamQuery(criteria, params);
+        Set<String> fields = project(type, query, params.getFields());
+
+        try (Stream<T> documents = mongoTemplate.stream(query, type);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            int written = 0;
+            for (T document : (Iterable<T>) documents::iterator) {
+                lineWriter.writeValue(generator, shape(document, fields));
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Query for one page: one document more than the limit is fetched to learn whether another page follows.
+     */
+    Query pageQuery(Criteria criteria, ListParams params) {
+        Sort.Direction direction = direction(params);
+        Query query = new Query(criteria).with(Sort.by(direction, "id")).limit(limit(params) + 1);
+        if (params.getCursor() != null) {
+            ObjectId after = parseCursor(params.getCursor());
+            query.addCriteria(direction.isAscending()
+                    ? Criteria.where("id").gt(after)
+                    : Criteria.where("id").lt(after));
+        }
+        return query;
+    }
+
+    Query streamQuery(Criteria criteria, ListParams params) {
+        return new Query(criteria).with(Sort.by(direction(params), "id")).cursorBatchSize(FLUSH_EVERY);
+    }
+
+    int limit(ListParams params) {
+        return Math.min(params.getLimit() == null ? defaultLimit : params.getLimit(), maxLimit);
+    }
+
+    <T> CursorPage<Object> toPage(List<T> found, int limit, Set<String> fields) {
+        boolean more = found.size() > limit;
+        List<T> items = more ? found.subList(0, limit) : found;
+        String nextCursor = more ? idOf(items.get(items.size() - 1)) : null;
+
+        List<Object> body = new ArrayList<>(items.size());
+        items.forEach(item -> body.add(shape(item, fields)));
+        return new CursorPage<>(body, nextCursor);
+    }
+
+    Object shape(Object document, Set<String> fields) {
+        return fields.isEmpty() ? document : retain(document, fields);
+    }
+
+    Set<String> project(Class<?> type, Query query, Collection<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return Set.of();
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        Set<String> fields = new HashSet<>(requested);
+        fields.add("id");
+        for (String field : fields) {
+            if (entity.getPersistentProperty(field) == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+        return fields;
+    }
+
+    private ObjectNode retain(Object document, Set<String> fields) {
+        ObjectNode node = objectMapper.valueToTree(document);
+        node.retain(fields);
+        return node;
+    }
+
+    private String idOf(Object document) {
+        Object id = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(document.getClass())
+                .getIdentifierAccessor(document)
+                .getIdentifier();
+        return String.valueOf(id);
+    }
+
+    private static Sort.Direction direction(ListParams params) {
+        return params.getDirection() == null ? Sort.Direction.ASC : params.getDirection();
+    }
+
+    private static ObjectId parseCursor(String cursor) {
+        if (!ObjectId.isValid(cursor)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return new ObjectId(cursor);
+    }
+}
@@ -0,0 +1,186 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.EngineerCapacityChangedEvent;
+import com.intelliroute.event.EngineerUpdatedEvent;
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.repository.EngineerRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * In-process view of engineer availability. Engineers with free capacity are kept per designation,
+ * ordered by free capacity, and every skill maps to the engineers that hold it, so the assigner can
+ * pick candidates without reading the whole engineers collection for every query. Skills are interned into
+ * {@link SkillBits} as engineers are indexed, and the copies handed out carry the resulting bitset.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EngineerIndex {
+
+    // Most free capacity first; on ties prefer the busier engineer, matching EngineerSelector.
+    private static final Comparator<Engineer> BY_FREE_CAPACITY = Comparator
+            .comparingInt((Engineer e) -> e.getCapacity() - e.getCurrentLoad()).reversed()
+            .thenComparing(Comparator.comparingInt(Engineer::getCurrentLoad).reversed())
+            .thenComparing(Engineer::getId);
+
+    private final EngineerRepository engineerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, Engineer> byId = new HashMap<>();
+    private final Map<Designation, NavigableSet<Engineer>> freeByDesignation = new EnumMap<>(Designation.class);
+    private final Map<String, Set<String>> engineersBySkill = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${assignment.index.refresh-ms:300000}",
+            fixedDelayString = "${assignment.index.refresh-ms:300000}")
+    public void rebuild() {
+        List<Engineer> engineers = engineerRepository.findAll();
+        synchronized (this) {
+            byId.clear();
+            freeByDesignation.clear();
+            engineersBySkill.clear();
+            engineers.forEach(this::insert);
+        }
+        log.debug("Engineer index rebuilt with {} engineers", engineers.size());
+    }
+
+    @EventListener
+    public void onCapacityChanged(EngineerCapacityChangedEvent event) {
+        engineerRepository.findById(event.engineerId()).ifPresent(this::upsert);
+    }
+
+    public void upsert(Engineer engineer) {
+        if (engineer == null || engineer.getId() == null) {
+            return;
+        }
+        hold(engineer);
+        eventPublisher.publishEvent(new EngineerUpdatedEvent(engineer));
+    }
+
+    /**
+     * Indexes a tentative state, such as a load taken while a cycle is being planned, without announcing it.
+     * The caller upserts the committed state once it is known.
+     */
+    public synchronized void hold(Engineer engineer) {
+        if (engineer == null || engineer.getId() == null) {
+            return;
+        }
+        remove(engineer.getId());
+        insert(engineer);
+    }
+
+    public synchronized void remove(String engineerId) {
+        Engineer previous = byId.remove(engineerId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.getDesignation() != null) {
+            NavigableSet<Engineer> free = freeByDesignation.get(previous.getDesignation());
+            if (free != null) {
+                free.remove(previous);
+            }
+        }
+        if (!CollectionUtils.isEmpty(previous.getSkills())) {
+            for (String skill : previous.getSkills()) {
+                Set<String> holders = engineersBySkill.get(skill);
+                if (holders != null) {
+                    holders.remove(engineerId);
+                    if (holders.isEmpty()) {
+                        engineersBySkill.remove(skill);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized Optional<Engineer> get(String engineerId) {
+        return Optional.ofNullable(byId.get(engineerId)).map(e -> e.toBuilder().build());
+    }
+
+    public synchronized boolean hasFreeCapacity() {
+        return freeByDesignation.values().stream().anyMatch(set -> !set.isEmpty());
+    }
+
+    public synchronized int freeCapacity(Designation designation) {
+        NavigableSet<Engineer> free = freeByDesignation.get(designation);
+        return free == null ? 0 : free.stream().mapToInt(e -> e.getCapacity() - e.getCurrentLoad()).sum();
+    }
+
+    public synchronized List<Engineer> freeEngineers() {
+        List<Engineer> copies = new ArrayList<>();
+        freeByDesignation.values().forEach(free -> free.forEach(e -> copies.add(e.toBuilder().build())));
+        return copies;
+    }
+
+    /**
+     * Returns copies of every engineer that can win selection for the given tags: the engineer with the
+     * most free capacity in each designation, plus every free engineer holding at least one of the tags.
+     */
+    public synchronized List<Engineer> candidates(Collection<String> tags) {
+        Map<String, Engineer> candidates = new LinkedHashMap<>();
+        for (NavigableSet<Engineer> free : freeByDesignation.values()) {
+            if (!free.isEmpty()) {
+                Engineer top = free.first();
+                candidates.put(top.getId(), top);
+            }
+        }
+        if (!CollectionUtils.isEmpty(tags)) {
+            for (String tag : tags) {
+                Set<String> holders = engineersBySkill.get(tag);
+                if (holders == null) {
+                    continue;
+                }
+                for (String id : holders) {
+                    Engineer engineer = byId.get(id);
+                    if (isFree(engineer)) {
+                        candidates.putIfAbsent(id, engineer);
+                    }
+                }
+            }
+        }
+        List<Engineer> copies = new ArrayList<>(candidates.size());
+        candidates.values().forEach(e -> copies.add(e.toBuilder().build()));
+        return copies;
+    }
+
+    private void insert(Engineer engineer) {
+        Engineer copy = engineer.toBuilder().skillBits(SkillBits.intern(engineer.getSkills())).build();
+        byId.put(copy.getId(), copy);
+        if (isFree(copy)) {
+            freeByDesignation.computeIfAbsent(copy.getDesignation(), d -> new TreeSet<>(BY_FREE_CAPACITY)).add(copy);
+        }
+        if (!CollectionUtils.isEmpty(copy.getSkills())) {
+            for (String skill : copy.getSkills()) {
+                engineersBySkill.computeIfAbsent(skill, s -> new HashSet<>()).add(copy.getId());
+            }
+        }
+    }
+
+    private boolean isFree(Engineer engineer) {
+        return engineer != null
+                && engineer.isAvailable()
+                && engineer.getDesignation() != null
+                && engineer.getCurrentLoad() < engineer.getCapacity();
+    }
+}
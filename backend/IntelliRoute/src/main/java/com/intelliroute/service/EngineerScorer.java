@@ -0,0 +1,80 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.Priority;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EngineerScorer {
+
+    /**
+     * @param tagBits the query's tags as a {@link SkillBits} bitset, computed once per query
+     */
+    public double score(Engineer engineer, Designation target, long[] tagBits,
+                        Priority priority, double complexity) {
+        int freeCapacity = engineer.getCapacity() - engineer.getCurrentLoad();
+        return skillMatches(engineer, tagBits) * 2.0 + freeCapacity
+                + designationScore(engineer.getDesignation(), target, priority, complexity);
+    }
+
+    /**
+     * The part of the score that depends only on the engineer's designation and the query, i.e. everything
+     * except skill matches and free capacity.
+     */
+    public double designationScore(Designation designation, Designation target, Priority priority, double complexity) {
+        double designationFit;
+        if (designation == target) {
+            designationFit = 3.0;
+        } else if (isHigherSeniority(designation, target)) {
+            designationFit = 2.0;
+        } else {
+            designationFit = -1.0;
+        }
+
+        double priorityBoost = priority == Priority.P1 ? 2.0 : priority == Priority.P2 ? 1.0 : 0.0;
+        double complexityBuffer = complexity >= 3.6 && designation == Designation.TECH_LEAD ? 1.0 : 0.0;
+
+        return designationFit + priorityBoost + complexityBuffer;
+    }
+
+    /**
+     * Engineers from {@link EngineerIndex} carry their skill bitset; any other engineer is looked up on the
+     * spot.
+     */
+    public int skillMatches(Engineer engineer, long[] tagBits) {
+        if (tagBits.length == 0) {
+            return 0;
+        }
+        long[] skillBits = engineer.getSkillBits() != null
+                ? engineer.getSkillBits()
+                : SkillBits.lookup(engineer.getSkills());
+        return SkillBits.overlap(skillBits, tagBits);
+    }
+
+    public Designation targetDesignation(Double complexityScore) {
+        if (complexityScore == null) {
+            return Designation.MID;
+        }
+        if (complexityScore <= 2.0) {
+            return Designation.JUNIOR;
+        } else if (complexityScore <= 3.5) {
+            return Designation.MID;
+        } else {
+            return Designation.SENIOR;
+        }
+    }
+
+    private boolean isHigherSeniority(Designation candidate, Designation target) {
+        return rank(candidate) > rank(target);
+    }
+
+    private int rank(Designation designation) {
+        return switch (designation) {
+            case JUNIOR -> 1;
+            case MID -> 2;
+            case SENIOR -> 3;
+            case TECH_LEAD -> 4;
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.SupportQuery;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Greedy choice of the best free engineer for a single query, scored over the candidates in
+ * {@link EngineerIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+public class EngineerSelector {
+
+    private final EngineerIndex engineerIndex;
+    private final EngineerScorer engineerScorer;
+
+    public Optional<Engineer> select(SupportQuery query) {
+        Designation target = engineerScorer.targetDesignation(query.getComplexityScore());
+        List<Engineer> candidates = engineerIndex.candidates(query.getTags());
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        long[] tagBits = SkillBits.lookup(query.getTags());
+
+        return candidates.stream()
+                .max(Comparator.comparingDouble((Engineer e) ->
+                        engineerScorer.score(e, target, tagBits, query.getPriority(), query.getComplexityScore()))
+                        .thenComparingInt(Engineer::getCurrentLoad));
+    }
+}
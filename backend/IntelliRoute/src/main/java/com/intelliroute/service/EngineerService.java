@@ -1,10 +1,18 @@
 package com.intelliroute.service;
 
+import com.intelliroute.dto.CursorPage;
 import com.intelliroute.dto.EngineerRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.EngineerCapacityChangedEvent;
+import com.intelliroute.model.Designation;
 import com.intelliroute.model.Engineer;
 import com.intelliroute.repository.EngineerRepository;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,9 +20,19 @@ import org.springframework.stereotype.Service;
 public class EngineerService {
 
     private final EngineerRepository engineerRepository;
+    private final EngineerIndex engineerIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursorPager cursorPager;
 
     public Engineer createEngineer(EngineerRequest request) {
-        Engineer engineer = Engineer.builder()
+        Engineer saved = engineerRepository.save(newEngineer(request));
+        engineerIndex.upsert(saved);
+        eventPublisher.publishEvent(new EngineerCapacityChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    static Engineer newEngineer(EngineerRequest request) {
+        return Engineer.builder()
                 .name(request.getName())
                 .designation(request.getDesignation())
                 .capacity(request.getCapacity())
@@ -22,11 +40,25 @@ public class EngineerService {
                 .skills(request.getSkills())
                 .timezone(request.getTimezone())
                 .build();
-        return engineerRepository.save(engineer);
     }
 
-    public List<Engineer> listEngineers() {
-        return engineerRepository.findAll();
+    public CursorPage<Object> listPage(Designation designation, Boolean available, ListParams params) {
+        return cursorPager.page(Engineer.class, listCriteria(designation, available, params), params);
+    }
+
+    public void streamAll(Designation designation, Boolean available, ListParams params, OutputStream out) {
+        cursorPager.stream(Engineer.class, listCriteria(designation, available, params), params, out);
+    }
+
+    Criteria listCriteria(Designation designation, Boolean available, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (designation != null) {
+            filters.add(Criteria.where("designation").is(designation));
+        }
+        if (available != null) {
+            filters.add(Criteria.where("available").is(available));
+        }
+        return cursorPager.criteria(filters, "createdAt", params);
     }
 }
 
@@ -0,0 +1,179 @@
+package com.intelliroute.service;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resilience layer around Gemini calls: a circuit breaker that short-circuits to the heuristic while Gemini is
+ * unhealthy, a timeout that follows the observed p99 latency, and optional hedged requests that fire a second
+ * call when the first one is slower than usual.
+ *
+ * <p>Every finished call is sampled, failures included, and a call that times out counts as taking the whole
+ * timeout, so the timeout grows again when Gemini slows down. It never exceeds {@code ai.scoring.timeout-ms},
+ * the budget of the whole scoring chain; the shared WebClient's 5s response timeout sits above both.
+ */
+@Component
+@Slf4j
+public class GeminiCallGuard {
+
+    private static final int LATENCY_WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final double timeoutMultiplier;
+    private final boolean hedgingEnabled;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int next;
+    private int filled;
+    private int sinceRecompute;
+    private volatile long p95Ms;
+    private volatile long p99Ms;
+
+    public GeminiCallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai.gemini.resilience.min-timeout-ms:250}") long minTimeoutMs,
+                           @Value("${ai.scoring.timeout-ms:3000}") long maxTimeoutMs,
+                           @Value("${ai.gemini.resilience.timeout-multiplier:2.0}") double timeoutMultiplier,
+                           @Value("${ai.gemini.resilience.hedging-enabled:false}") boolean hedgingEnabled) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("gemini");
+        this.meterRegistry = meterRegistry;
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.hedgingEnabled = hedgingEnabled;
+        this.p95Ms = maxTimeoutMs;
+        this.p99Ms = maxTimeoutMs;
+        Gauge.builder("intelliroute.gemini.timeout", this, guard -> guard.currentTimeout().toMillis())
+                .baseUnit("milliseconds")
+                .description("Current adaptive timeout for Gemini calls")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the request under the breaker, adaptive timeout and optional hedge. Completes empty when the call is
+     * not permitted or fails, so callers fall back without waiting.
+     */
+    public Mono<Double> call(Supplier<Mono<Double>> request) {
+        return Mono.defer(() -> {
+                    Duration timeout = currentTimeout();
+                    Mono<Double> primary = timed(request);
+                    Mono<Double> attempt = hedgingEnabled
+                            ? Mono.firstWithValue(primary, Mono.delay(hedgeDelay()).then(timed(request)))
+                            : primary;
+                    return attempt
+                            .timeout(timeout)
+                            .doOnError(TimeoutException.class, err -> recordLatency(timeout.toMillis()))
+                            .onErrorResume(NoSuchElementException.class, err -> Mono.empty())
+                            .doOnSuccess(score -> {
+                                if (score == null) {
+                                    recordFallback("unparsable");
+                                }
+                            });
+                })
+                .transform(this::guarded);
+    }
+
+    /**
+     * Runs a multi-query request under the breaker with a fixed timeout. Batch latency grows with the batch, so
+     * it neither feeds nor follows the adaptive single-call timeout, and it is never hedged. Completes empty when
+     * the call is not permitted or fails.
+     */
+    public <T> Mono<T> callBatch(Supplier<Mono<T>> request, Duration timeout) {
+        return Mono.defer(request)
+                .timeout(timeout)
+                .transform(this::guarded);
+    }
+
+    private <T> Mono<T> guarded(Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(err -> {
+                    String reason = reason(err);
+                    if ("circuit-open".equals(reason)) {
+                        log.debug("Gemini circuit is open; skipping call");
+                    } else {
+                        log.warn("Gemini service call failed: {}", err.getMessage());
+                    }
+                    recordFallback(reason);
+                    return Mono.empty();
+                });
+    }
+
+    public void recordFallback(String reason) {
+        Counter.builder("intelliroute.gemini.fallbacks")
+                .tag("reason", reason)
+                .description("Gemini calls answered by the heuristic instead")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    Duration currentTimeout() {
+        long adaptive = (long) (p99Ms * timeoutMultiplier);
+        return Duration.ofMillis(Math.max(minTimeoutMs, Math.min(maxTimeoutMs, adaptive)));
+    }
+
+    private Duration hedgeDelay() {
+        return Duration.ofMillis(Math.max(1, Math.min(p95Ms, maxTimeoutMs)));
+    }
+
+    // Cancelled attempts (timed out, or the losing half of a hedge) are not sampled here; a timeout is
+    // recorded once by the caller.
+    private Mono<Double> timed(Supplier<Mono<Double>> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.defer(request)
+                    .doOnSuccess(score -> recordLatency(elapsedMs(start)))
+                    .doOnError(err -> recordLatency(elapsedMs(start)));
+        });
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[next] = millis;
+        next = (next + 1) % LATENCY_WINDOW;
+        filled = Math.min(filled + 1, LATENCY_WINDOW);
+        // Start adapting after a handful of samples, then refresh the percentiles periodically.
+        if (++sinceRecompute >= RECOMPUTE_EVERY || filled == RECOMPUTE_EVERY / 2) {
+            sinceRecompute = 0;
+            long[] window = Arrays.copyOf(latencies, filled);
+            Arrays.sort(window);
+            p95Ms = window[(int) Math.ceil(window.length * 0.95) - 1];
+            p99Ms = window[(int) Math.ceil(window.length * 0.99) - 1];
+        }
+    }
+
+    private static String reason(Throwable err) {
+        if (err instanceof CallNotPermittedException) {
+            return "circuit-open";
+        }
+        if (err instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,371 @@
+package com.intelliroute.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Scores with Gemini. Scores are cached in {@link ComplexityScoreCache}, and calls go through
+ * {@link GeminiCallGuard}, so an open circuit, error, timeout or unparsable answer completes empty. With
+ * {@code ai.gemini.batch.enabled}, batches are packed into multi-query prompts sized by estimated tokens,
+ * each query tagged with its index; entries missing from an answer are asked again once.
+ */
+@Component
+@Slf4j
+public class GeminiComplexityScorer implements ComplexityScorer {
+
+    public static final String NAME = "gemini";
+
+    // Prompt instructions, and the markup and answer of each query, in estimated tokens.
+    private static final int BATCH_PROMPT_TOKENS = 120;
+    private static final int BATCH_ITEM_TOKENS = 16;
+    private static final Pattern ID_SCORE = Pattern.compile("\\b(\\d+)\\D{1,12}?(\\d+(?:\\.\\d+)?)");
+    private static final Map<String, Object> BATCH_RESPONSE_SCHEMA = Map.of(
+            "type", "ARRAY",
+            "items", Map.of(
+                    "type", "OBJECT",
+                    "properties", Map.of(
+                            "id", Map.of("type", "STRING"),
+                            "score", Map.of("type", "NUMBER")),
+                    "required", List.of("id", "score")));
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final ComplexityScoreCache complexityScoreCache;
+    private final GeminiCallGuard geminiCallGuard;
+    private final RoutingMetrics routingMetrics;
+    private final String geminiApiKey;
+    private final String geminiModel;
+    private final String geminiEndpoint;
+    private final int scoringConcurrency;
+    private final boolean batchEnabled;
+    private final int batchMaxItems;
+    private final int batchMaxInputTokens;
+    private final Duration batchTimeout;
+    private final int batchConcurrency;
+
+    // Shrinks when answers come back incomplete and grows back while they parse; capped by max-items.
+    private final AtomicInteger batchItemLimit = new AtomicInteger(Integer.MAX_VALUE);
+
+    public GeminiComplexityScorer(WebClient webClient,
+                                  ObjectMapper objectMapper,
+                                  ComplexityScoreCache complexityScoreCache,
+                                  GeminiCallGuard geminiCallGuard,
+                                  RoutingMetrics routingMetrics,
+                                  @Value("${ai.gemini.api-key:}") String geminiApiKey,
+                                  @Value("${ai.gemini.model:gemini-1.5-flash}") String geminiModel,
+                                  @Value("${ai.gemini.endpoint:https://generativelanguage.googleapis.com/v1beta}")
+                                  String geminiEndpoint,
+                                  @Value("${ai.scoring.concurrency:16}") int scoringConcurrency,
+                                  @Value("${ai.gemini.batch.enabled:false}") boolean batchEnabled,
+                                  @Value("${ai.gemini.batch.max-items:50}") int batchMaxItems,
+                                  @Value("${ai.gemini.batch.max-input-tokens:8000}") int batchMaxInputTokens,
+                                  @Value("${ai.gemini.batch.timeout-ms:5000}") long batchTimeoutMs,
+                                  @Value("${ai.gemini.batch.concurrency:4}") int batchConcurrency) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.complexityScoreCache = complexityScoreCache;
+        this.geminiCallGuard = geminiCallGuard;
+        this.routingMetrics = routingMetrics;
+        this.geminiApiKey = geminiApiKey;
+        this.geminiModel = geminiModel;
+        this.geminiEndpoint = geminiEndpoint;
+        this.scoringConcurrency = Math.max(1, scoringConcurrency);
+        this.batchEnabled = batchEnabled;
+        this.batchMaxItems = Math.max(1, batchMaxItems);
+        this.batchMaxInputTokens = batchMaxInputTokens;
+        this.batchTimeout = Duration.ofMillis(batchTimeoutMs);
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean batches() {
+        return batchEnabled && configured();
+    }
+
+    public boolean configured() {
+        return StringUtils.hasText(geminiApiKey);
+    }
+
+    /**
+     * The cached score, or a fresh one that is then cached.
+     */
+    @Override
+    public Mono<Double> predict(String description) {
+        if (!configured()) {
+            return Mono.empty();
+        }
+        return complexityScoreCache.get(geminiModel, description)
+                .switchIfEmpty(Mono.defer(() -> geminiCallGuard.call(() -> predictWithGemini(description))
+                        .flatMap(score -> complexityScoreCache.put(geminiModel, description, score)
+                                .thenReturn(score))));
+    }
+
+    /**
+     * Cached scores first; the rest go out in multi-query prompts of at most the current item limit and
+     * {@code ai.gemini.batch.max-input-tokens} estimated tokens. Entries of a request that failed outright, or
+     * that did not parse twice, are left {@code null}.
+     */
+    @Override
+    public Mono<List<Double>> predictBatch(List<String> descriptions) {
+        if (!configured()) {
+            return Mono.just(Arrays.asList(new Double[descriptions.size()]));
+        }
+        if (!batchEnabled) {
+            return ComplexityScorer.super.predictBatch(descriptions);
+        }
+        Double[] scores = new Double[descriptions.size()];
+        return Flux.range(0, descriptions.size())
+                .flatMap(i -> complexityScoreCache.get(geminiModel, descriptions.get(i))
+                        .doOnNext(score -> scores[i] = score), scoringConcurrency)
+                .then(Mono.defer(() -> {
+                    List<Integer> misses = new ArrayList<>();
+                    for (int i = 0; i < scores.length; i++) {
+                        if (scores[i] == null) {
+                            misses.add(i);
+                        }
+                    }
+                    return Flux.fromIterable(pack(misses, descriptions))
+                            .flatMap(chunk -> requestBatch(chunk, descriptions, scores, true), batchConcurrency)
+                            .then();
+                }))
+                .then(Mono.fromSupplier(() -> Arrays.asList(scores)));
+    }
+
+    /**
+     * Splits the ids, in order, into chunks of at most the current item limit whose estimated tokens fit
+     * {@code ai.gemini.batch.max-input-tokens}.
+     */
+    private List<List<Integer>> pack(List<Integer> ids, List<String> descriptions) {
+        int itemLimit = Math.min(batchItemLimit.get(), batchMaxItems);
+        int tokenBudget = Math.max(1, batchMaxInputTokens - BATCH_PROMPT_TOKENS);
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> chunk = new ArrayList<>();
+        int chunkTokens = 0;
+        for (Integer id : ids) {
+            int tokens = estimateTokens(descriptions.get(id));
+            if (!chunk.isEmpty() && (chunk.size() == itemLimit || chunkTokens + tokens > tokenBudget)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkTokens = 0;
+            }
+            chunk.add(id);
+            chunkTokens += tokens;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static int estimateTokens(String description) {
+        return BATCH_ITEM_TOKENS + (description == null ? 0 : (description.length() + 3) / 4);
+    }
+
+    /**
+     * Sends one multi-query prompt and records the parsed scores; ids that did not parse are asked again once.
+     */
+    private Mono<Void> requestBatch(List<Integer> ids, List<String> descriptions, Double[] scores, boolean retry) {
+        routingMetrics.batchSize(NAME, ids.size());
+        return geminiCallGuard.callBatch(() -> sendBatch(ids, descriptions), batchTimeout)
+                .flatMap(parsed -> {
+                    List<Integer> failed = new ArrayList<>();
+                    List<Mono<Void>> writes = new ArrayList<>();
+                    for (Integer id : ids) {
+                        Double score = parsed.get(id);
+                        if (score == null) {
+                            failed.add(id);
+                        } else {
+                            scores[id] = score;
+                            writes.add(complexityScoreCache.put(geminiModel, descriptions.get(id), score));
+                        }
+                    }
+                    adaptItemLimit(ids.size(), failed.size());
+                    Mono<Void> again = Mono.empty();
+                    if (!failed.isEmpty()) {
+                        log.debug("{} of {} batch answers did not parse", failed.size(), ids.size());
+                        if (retry && failed.size() < ids.size()) {
+                            again = requestBatch(failed, descriptions, scores, false);
+                        } else {
+                            failed.forEach(id -> geminiCallGuard.recordFallback("unparsable"));
+                        }
+                    }
+                    return Mono.when(writes).then(again);
+                });
+    }
+
+    // Additive increase while whole answers parse, halving when entries go missing.
+    private void adaptItemLimit(int requested, int failed) {
+        batchItemLimit.updateAndGet(limit -> {
+            int current = Math.min(limit, batchMaxItems);
+            if (failed > 0) {
+                return Math.max(1, Math.min(current, requested) / 2);
+            }
+            return Math.min(batchMaxItems, current + Math.max(1, batchMaxItems / 10));
+        });
+    }
+
+    private Mono<Map<Integer, Double>> sendBatch(List<Integer> ids, List<String> descriptions) {
+        StringBuilder prompt = new StringBuilder("""
+                You are scoring support queries for engineering triage. \
+                Rate the complexity of every query below with a number between 1.0 (very simple) \
+                and 5.0 (very complex). Answer with a JSON array holding one {"id": ..., "score": ...} \
+                object per query, using the ids exactly as given.
+
+                """);
+        for (Integer id : ids) {
+            prompt.append("<query id=\"").append(id).append("\">\n")
+                    .append(descriptions.get(id))
+                    .append("\n</query>\n");
+        }
+
+        Map<String, Object> request = Map.of(
+                "contents", List.of(
+                        Map.of("parts", List.of(Map.of("text", prompt.toString())))
+                ),
+                "generationConfig", Map.of(
+                        "responseMimeType", "application/json",
+                        "responseSchema", BATCH_RESPONSE_SCHEMA)
+        );
+
+        return webClient.post()
+                .uri(geminiEndpoint + "/models/" + geminiModel + ":generateContent?key=" + geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(request))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(response -> parseBatch(responseText(response), ids));
+    }
+
+    /**
+     * Scores by id from a JSON answer, or from "id: score" pairs when the answer is not valid JSON. Unknown ids
+     * and scores outside 1.0-5.0 are dropped.
+     */
+    private Map<Integer, Double> parseBatch(String text, List<Integer> ids) {
+        Map<Integer, Double> scores = new HashMap<>();
+        if (text == null) {
+            return scores;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(text);
+            for (JsonNode item : root.isArray() ? root : root.path("scores")) {
+                JsonNode score = item.path("score");
+                putScore(scores, ids, item.path("id").asText(), score.isNumber() ? score.asText() : null);
+            }
+        } catch (JsonProcessingException ex) {
+            Matcher matcher = ID_SCORE.matcher(text);
+            while (matcher.find()) {
+                putScore(scores, ids, matcher.group(1), matcher.group(2));
+            }
+        }
+        return scores;
+    }
+
+    private static void putScore(Map<Integer, Double> scores, List<Integer> ids, String id, String score) {
+        if (score == null) {
+            return;
+        }
+        try {
+            int parsedId = Integer.parseInt(id.trim());
+            double parsedScore = Double.parseDouble(score);
+            if (ids.contains(parsedId) && parsedScore >= 1.0 && parsedScore <= 5.0) {
+                scores.putIfAbsent(parsedId, parsedScore);
+            }
+        } catch (NumberFormatException ex) {
+            // Not an answer for one of our ids.
+        }
+    }
+
+    private Mono<Double> predictWithGemini(String description) {
+        String prompt = """
+                You are scoring support queries for engineering triage. \
+                Return only a number between 1.0 (very simple) and 5.0 (very complex). \
+                No text, no units, just the number.
+
+                Query: %s
+                """.formatted(description);
+
+        Map<String, Object> request = Map.of(
+                "contents", List.of(
+                        Map.of("parts", List.of(Map.of("text", prompt)))
+                )
+        );
+
+        return webClient.post()
+                .uri(geminiEndpoint + "/models/" + geminiModel + ":generateContent?key=" + geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(request))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .flatMap(response -> Mono.justOrEmpty(parseScore(responseText(response))));
+    }
+
+    private Double parseScore(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            // Gemini may return extra tokens; grab the first parsable number.
+            String numeric = text.trim().split("[^0-9\\.]")[0];
+            return Double.parseDouble(numeric);
+        } catch (Exception ex) {
+            log.warn("Gemini parsing failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String responseText(Map<?, ?> response) {
+        try {
+            if (response == null || !response.containsKey("candidates")) {
+                return null;
+            }
+            Object candidatesObj = response.get("candidates");
+            if (!(candidatesObj instanceof List<?> candidates) || candidates.isEmpty()) {
+                return null;
+            }
+            Object first = candidates.getFirst();
+            if (!(first instanceof Map<?, ?> candidate)) {
+                return null;
+            }
+            Object contentObj = candidate.get("content");
+            if (!(contentObj instanceof Map<?, ?> content)) {
+                return null;
+            }
+            Object partsObj = content.get("parts");
+            if (!(partsObj instanceof List<?> parts) || parts.isEmpty()) {
+                return null;
+            }
+            Object part = parts.getFirst();
+            if (!(part instanceof Map<?, ?> partMap) || !partMap.containsKey("text")) {
+                return null;
+            }
+            return partMap.get("text").toString();
+        } catch (Exception ex) {
+            log.warn("Gemini parsing failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+}
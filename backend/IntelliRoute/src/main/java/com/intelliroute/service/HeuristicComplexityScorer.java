@@ -0,0 +1,76 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.KeywordDictionary;
+import com.intelliroute.model.KeywordRule;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keyword and length based complexity estimate, used when Gemini is not configured or unavailable. It always
+ * answers, so it ends any scoring chain it appears in. Keywords come from a {@link KeywordDictionary} compiled
+ * into a {@link KeywordAutomaton}; {@link #update} swaps in a new dictionary without blocking scorers.
+ */
+@Component
+public class HeuristicComplexityScorer implements ComplexityScorer {
+
+    public static final String NAME = "heuristic";
+
+    private volatile Compiled compiled;
+
+    public HeuristicComplexityScorer() {
+        update(KeywordDictionary.defaults());
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Double> predict(String description) {
+        return Mono.fromSupplier(() -> score(description));
+    }
+
+    public KeywordDictionary dictionary() {
+        return compiled.dictionary;
+    }
+
+    /**
+     * Compiles and installs {@code dictionary}. An invalid dictionary throws and leaves the current one in place.
+     */
+    public void update(KeywordDictionary dictionary) {
+        if (dictionary.getLengthDivisor() <= 0) {
+            throw new IllegalArgumentException("lengthDivisor must be positive");
+        }
+        List<KeywordRule> rules = dictionary.getRules() == null ? List.of() : dictionary.getRules();
+        double[] weights = new double[rules.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = rules.get(i).getWeight();
+        }
+        KeywordAutomaton automaton = new KeywordAutomaton(rules.stream()
+                .map(rule -> rule.getKeywords() == null ? List.<String>of() : rule.getKeywords())
+                .toList());
+        compiled = new Compiled(dictionary, automaton, weights);
+    }
+
+    public double score(String description) {
+        if (description == null || description.isBlank()) {
+            return 2.5;
+        }
+        Compiled current = compiled;
+        KeywordDictionary dictionary = current.dictionary;
+
+        double score = dictionary.getBase()
+                + Math.min(description.length() / dictionary.getLengthDivisor(), dictionary.getMaxLengthBonus());
+        for (long matched = current.automaton.match(description); matched != 0; matched &= matched - 1) {
+            score += current.weights[Long.numberOfTrailingZeros(matched)];
+        }
+
+        score = Math.max(1.0, Math.min(score, 5.0));
+        return Math.round(score * 100.0) / 100.0;
+    }
+
+    private record Compiled(KeywordDictionary dictionary, KeywordAutomaton automaton, double[] weights) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.intelliroute.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Aho-Corasick automaton over the keywords of up to 64 rules, compiled into a dense transition table so one
+ * pass over the raw text finds every rule with a matching keyword. Characters are lower-cased one at a time,
+ * which keeps matching case-insensitive without copying the text. Immutable once built.
+ */
+final class KeywordAutomaton {
+
+    static final int MAX_RULES = Long.SIZE;
+
+    private final int[] asciiColumns = new int[128];
+    private final char[] otherChars;
+    private final int[] otherColumns;
+    private final int columns;
+    private final int[] next;
+    private final long[] output;
+    private final long allRules;
+
+    /**
+     * @param keywords keywords of each rule, indexed by rule; blank keywords are ignored
+     */
+    KeywordAutomaton(List<List<String>> keywords) {
+        if (keywords.size() > MAX_RULES) {
+            throw new IllegalArgumentException("At most " + MAX_RULES + " keyword rules are supported");
+        }
+        TreeSet<Character> alphabet = new TreeSet<>();
+        List<char[]> patterns = new ArrayList<>();
+        List<Integer> patternRules = new ArrayList<>();
+        long rules = 0;
+        for (int rule = 0; rule < keywords.size(); rule++) {
+            for (String keyword : keywords.get(rule)) {
+                if (keyword == null || keyword.isBlank()) {
+                    continue;
+                }
+                char[] pattern = keyword.toCharArray();
+                for (int i = 0; i < pattern.length; i++) {
+                    pattern[i] = Character.toLowerCase(pattern[i]);
+                    alphabet.add(pattern[i]);
+                }
+                patterns.add(pattern);
+                patternRules.add(rule);
+                rules |= 1L << rule;
+            }
+        }
+        this.allRules = rules;
+
+        // Column 0 stands for every character that occurs in no keyword.
+        List<Character> other = new ArrayList<>();
+        int column = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiColumns[c] = column++;
+            } else {
+                other.add(c);
+            }
+        }
+        this.otherChars = new char[other.size()];
+        this.otherColumns = new int[other.size()];
+        for (int i = 0; i < other.size(); i++) {
+            otherChars[i] = other.get(i);
+            otherColumns[i] = column++;
+        }
+        this.columns = column;
+
+        // Trie with -1 for missing edges, then completed into a DFA breadth first along the failure links.
+        int maxStates = 1;
+        for (char[] pattern : patterns) {
+            maxStates += pattern.length;
+        }
+        int[] table = new int[maxStates * columns];
+        Arrays.fill(table, -1);
+        long[] out = new long[maxStates];
+        int states = 1;
+        for (int p = 0; p < patterns.size(); p++) {
+            int state = 0;
+            for (char c : patterns.get(p)) {
+                int edge = state * columns + column(c);
+                if (table[edge] < 0) {
+                    table[edge] = states++;
+                }
+                state = table[edge];
+            }
+            out[state] |= 1L << patternRules.get(p);
+        }
+
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < columns; c++) {
+            int child = table[c];
+            if (child < 0) {
+                table[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            out[state] |= out[fail[state]];
+            for (int c = 0; c < columns; c++) {
+                int edge = state * columns + c;
+                int child = table[edge];
+                int fallback = table[fail[state] * columns + c];
+                if (child < 0) {
+                    table[edge] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        this.next = Arrays.copyOf(table, states * columns);
+        this.output = Arrays.copyOf(out, states);
+    }
+
+    /**
+     * Returns a bit per rule with at least one keyword occurring in {@code text}.
+     */
+    long match(CharSequence text) {
+        if (allRules == 0) {
+            return 0;
+        }
+        long matched = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = next[state * columns + column(Character.toLowerCase(text.charAt(i)))];
+            long found = output[state];
+            if (found != 0) {
+                matched |= found;
+                if (matched == allRules) {
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private int column(char c) {
+        if (c < 128) {
+            return asciiColumns[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i < 0 ? 0 : otherColumns[i];
+    }
+}
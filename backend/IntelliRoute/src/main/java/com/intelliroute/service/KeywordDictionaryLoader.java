@@ -0,0 +1,89 @@
+package com.intelliroute.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliroute.model.KeywordDictionary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the heuristic scorer's keyword dictionary current. With {@code ai.heuristic.source} set to
+ * {@code file} the JSON file at {@code ai.heuristic.dictionary-path} is reloaded when its modification time
+ * changes; with {@code mongo} the {@code default} document of {@code heuristic_dictionaries} is re-read on every
+ * pass. An unreadable or invalid dictionary is logged and the current one kept.
+ */
+@Slf4j
+@Component
+public class KeywordDictionaryLoader {
+
+    public enum Source {
+        BUILTIN, FILE, MONGO
+    }
+
+    private final HeuristicComplexityScorer scorer;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Source source;
+    private final Path path;
+    private FileTime loadedModified;
+
+    public KeywordDictionaryLoader(HeuristicComplexityScorer scorer,
+                                   MongoTemplate mongoTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${ai.heuristic.source:builtin}") String source,
+                                   @Value("${ai.heuristic.dictionary-path:}") String path) {
+        this.scorer = scorer;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.source = Source.valueOf(source.toUpperCase(Locale.ROOT));
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${ai.heuristic.reload-ms:30000}",
+            fixedDelayString = "${ai.heuristic.reload-ms:30000}")
+    public synchronized void reload() {
+        try {
+            KeywordDictionary dictionary = switch (source) {
+                case BUILTIN -> null;
+                case FILE -> readFile();
+                case MONGO -> mongoTemplate.findById(KeywordDictionary.DEFAULT_ID, KeywordDictionary.class);
+            };
+            if (dictionary != null && !dictionary.equals(scorer.dictionary())) {
+                scorer.update(dictionary);
+                log.info("Loaded heuristic dictionary with {} rules from {}",
+                        dictionary.getRules() == null ? 0 : dictionary.getRules().size(),
+                        source.name().toLowerCase(Locale.ROOT));
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not load heuristic dictionary from {}: {}", source.name().toLowerCase(Locale.ROOT),
+                    ex.getMessage());
+        }
+    }
+
+    private KeywordDictionary readFile() throws IOException {
+        if (path == null) {
+            throw new IOException("ai.heuristic.dictionary-path is not set");
+        }
+        FileTime modified = Files.getLastModifiedTime(path);
+        if (modified.equals(loadedModified)) {
+            return null;
+        }
+        KeywordDictionary dictionary = objectMapper.readValue(path.toFile(), KeywordDictionary.class);
+        loadedModified = modified;
+        return dictionary;
+    }
+}
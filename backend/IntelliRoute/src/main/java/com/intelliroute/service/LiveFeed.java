@@ -0,0 +1,219 @@
+package com.intelliroute.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliroute.dto.FeedSnapshot;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.AssignmentChangedEvent;
+import com.intelliroute.event.EngineerUpdatedEvent;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.AssignmentStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Delta feed behind {@code GET /api/feed}. Query, engineer and assignment changes are numbered and kept in a
+ * ring of the last {@code api.feed.buffer-size} events. A subscriber that resumes from a sequence still in the
+ * ring gets the missed events and then live ones; any other subscriber first gets a snapshot, which is shared
+ * by every subscriber for {@code api.feed.snapshot-ttl-ms}, so Mongo reads do not grow with the number of
+ * dashboards. Sequences start at the boot time in microseconds, so ids from before a restart always fall
+ * outside the ring.
+ * <p>
+ * Each subscriber has a bounded buffer; one that falls further behind is completed and resumes on reconnect.
+ * Events are local to this node. A query is announced as created once, even when the change stream or the
+ * partition poll reports it again.
+ */
+@Component
+@Slf4j
+public class LiveFeed {
+
+    public record Event(long sequence, String type, Object data) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingScheduler;
+    private final int bufferSize;
+    private final int subscriberBuffer;
+    private final Duration heartbeat;
+    private final Mono<FeedSnapshot> snapshot;
+
+    private final ArrayDeque<Event> ring;
+    private final Set<Sinks.Many<Event>> subscribers = new HashSet<>();
+    private final Map<String, Boolean> announced;
+    private long sequence = System.currentTimeMillis() * 1000;
+
+    public LiveFeed(QueryService queryService,
+                    EngineerService engineerService,
+                    AssignmentService assignmentService,
+                    ObjectMapper objectMapper,
+                    Scheduler blockingScheduler,
+                    MeterRegistry meterRegistry,
+                    @Value("${api.feed.buffer-size:10000}") int bufferSize,
+                    @Value("${api.feed.subscriber-buffer:1024}") int subscriberBuffer,
+                    @Value("${api.feed.snapshot-ttl-ms:2000}") long snapshotTtlMs,
+                    @Value("${api.feed.heartbeat-ms:15000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.blockingScheduler = blockingScheduler;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.subscriberBuffer = Math.max(Queues.XS_BUFFER_SIZE, subscriberBuffer);
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+        this.ring = new ArrayDeque<>(this.bufferSize);
+        this.announced = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > LiveFeed.this.bufferSize;
+            }
+        };
+        Duration snapshotTtl = Duration.ofMillis(snapshotTtlMs);
+        this.snapshot = Mono.fromCallable(() -> {
+                    // Read the sequence first: changes racing with the reads are replayed on top of the snapshot.
+                    long at = lastSequence();
+                    ListParams newest = new ListParams();
+                    newest.setDirection(Sort.Direction.DESC);
+                    return new FeedSnapshot(at,
+                            engineerService.listPage(null, null, new ListParams()).items(),
+                            queryService.listPage(null, null, newest).items(),
+                            assignmentService.listPage(null, null, newest).items());
+                })
+                .subscribeOn(blockingScheduler)
+                .cache(value -> snapshotTtl, error -> Duration.ZERO, () -> Duration.ZERO);
+        Gauge.builder("intelliroute.feed.subscribers", this, LiveFeed::subscriberCount)
+                .description("Open delta feed connections on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Events after {@code since} if they are still buffered, otherwise a {@code snapshot} event followed by
+     * everything after it; heartbeat comments keep idle connections open through proxies.
+     */
+    public Flux<ServerSentEvent<Object>> stream(Long since) {
+        Flux<Event> events = Flux.defer(() -> {
+            Flux<Event> resumed = since == null ? null : follow(since);
+            if (resumed != null) {
+                return resumed;
+            }
+            return snapshot.flatMapMany(current -> {
+                Flux<Event> after = follow(current.sequence());
+                if (after == null) {
+                    // Too many changes since the snapshot was read; the client reconnects for a new one.
+                    return Flux.empty();
+                }
+                return Flux.concat(Mono.just(new Event(current.sequence(), "snapshot", current)), after);
+            });
+        });
+        return Flux.defer(() -> {
+            Sinks.Empty<Void> closed = Sinks.empty();
+            Flux<ServerSentEvent<Object>> deltas = events
+                    .publishOn(blockingScheduler)
+                    .map(event -> ServerSentEvent.builder(event.data())
+                            .id(Long.toString(event.sequence()))
+                            .event(event.type())
+                            .build())
+                    .doFinally(signal -> closed.tryEmitEmpty());
+            Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeat)
+                    .map(tick -> ServerSentEvent.builder().comment("keep-alive").build())
+                    .takeUntilOther(closed.asMono());
+            return Flux.merge(deltas, heartbeats);
+        });
+    }
+
+    @EventListener
+    public void onQueryCreated(QueryCreatedEvent event) {
+        if (firstAnnouncement(event.query().getId())) {
+            append("query.created", event.query());
+        }
+    }
+
+    @EventListener
+    public void onQueryStatusChanged(QueryStatusChangedEvent event) {
+        append("query." + event.query().getStatus().name().toLowerCase(Locale.ROOT), event.query());
+    }
+
+    @EventListener
+    public void onEngineerUpdated(EngineerUpdatedEvent event) {
+        append("engineer.updated", event.engineer());
+    }
+
+    @EventListener
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        append(event.assignment().getStatus() == AssignmentStatus.COMPLETED
+                ? "assignment.completed" : "assignment.created", event.assignment());
+    }
+
+    public synchronized long lastSequence() {
+        return sequence;
+    }
+
+    public synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized boolean firstAnnouncement(String queryId) {
+        return queryId == null || announced.put(queryId, Boolean.TRUE) == null;
+    }
+
+    // Payloads are copied to JSON trees right away, as the entities keep changing after the event.
+    private void append(String type, Object payload) {
+        JsonNode data = objectMapper.valueToTree(payload);
+        synchronized (this) {
+            Event event = new Event(++sequence, type, data);
+            ring.addLast(event);
+            if (ring.size() > bufferSize) {
+                ring.removeFirst();
+            }
+            Iterator<Sinks.Many<Event>> it = subscribers.iterator();
+            while (it.hasNext()) {
+                Sinks.Many<Event> subscriber = it.next();
+                if (subscriber.tryEmitNext(event).isFailure()) {
+                    it.remove();
+                    subscriber.tryEmitComplete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a subscriber that receives every event after {@code since}, or returns {@code null} if some of
+     * them are no longer buffered.
+     */
+    private synchronized Flux<Event> follow(long since) {
+        Event oldest = ring.peekFirst();
+        long firstBuffered = oldest == null ? sequence + 1 : oldest.sequence();
+        if (since > sequence || since + 1 < firstBuffered || sequence - since > subscriberBuffer) {
+            return null;
+        }
+        Sinks.Many<Event> subscriber = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<Event>get(subscriberBuffer).get());
+        for (Event event : ring) {
+            if (event.sequence() > since) {
+                subscriber.tryEmitNext(event);
+            }
+        }
+        subscribers.add(subscriber);
+        return subscriber.asFlux().doFinally(signal -> unsubscribe(subscriber));
+    }
+
+    private synchronized void unsubscribe(Sinks.Many<Event> subscriber) {
+        subscribers.remove(subscriber);
+    }
+}
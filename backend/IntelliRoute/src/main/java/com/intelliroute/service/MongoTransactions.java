@@ -0,0 +1,67 @@
+package com.intelliroute.service;
+
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs multi-document writes in a Mongo transaction when the deployment supports one (replica set or sharded
+ * cluster), and directly otherwise.
+ */
+@Component
+@Slf4j
+public class MongoTransactions {
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private volatile Boolean supported;
+
+    public MongoTransactions(MongoTemplate mongoTemplate,
+                             MongoTransactionManager transactionManager,
+                             @Value("${assignment.transactions:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Runs {@code work} inside a transaction if possible, passing {@code true}; if the transaction aborts, its
+     * writes are rolled back and the work is replayed without one, passing {@code false}. Work that is given
+     * {@code false} must cope with partial failures itself.
+     */
+    public <T> T execute(Function<Boolean, T> work) {
+        if (!supported()) {
+            return work.apply(false);
+        }
+        try {
+            return transactionTemplate.execute(status -> work.apply(true));
+        } catch (RuntimeException ex) {
+            log.warn("Mongo transaction aborted; replaying without a transaction: {}", ex.getMessage());
+            return work.apply(false);
+        }
+    }
+
+    public boolean supported() {
+        if (!enabled) {
+            return false;
+        }
+        Boolean result = supported;
+        if (result == null) {
+            try {
+                Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+                result = hello.containsKey("setName") || "isdbgrid".equals(hello.get("msg"));
+            } catch (RuntimeException ex) {
+                result = false;
+            }
+            supported = result;
+            log.info("Mongo transactions are {}", result ? "available" : "not available");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,259 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.SupportQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds near-duplicate descriptions among recently created queries. Each description is reduced to a MinHash
+ * signature over its character shingles, and the signature is split into bands that are hashed into
+ * locality-sensitive buckets, so a lookup only compares against queries sharing a band. A candidate counts as a
+ * duplicate when the estimated Jaccard similarity of the signatures reaches {@code queries.dedup.threshold}.
+ * Only canonical queries are indexed, and only once they are saved, so duplicates always link to the first stored
+ * query of their group. The index is held in memory per node and covers the last {@code window-ms}; it is
+ * rebuilt from Mongo at startup.
+ */
+@Slf4j
+@Component
+public class NearDuplicateIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final double threshold;
+    private final int bands;
+    private final int rows;
+    private final int shingleSize;
+    private final long windowMs;
+    private final int maxEntries;
+    private final long[] multipliers;
+    private final long[] increments;
+    private final Counter duplicates;
+
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    public NearDuplicateIndex(MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${queries.dedup.enabled:false}") boolean enabled,
+                              @Value("${queries.dedup.threshold:0.8}") double threshold,
+                              @Value("${queries.dedup.bands:16}") int bands,
+                              @Value("${queries.dedup.rows:8}") int rows,
+                              @Value("${queries.dedup.shingle-size:5}") int shingleSize,
+                              @Value("${queries.dedup.window-ms:3600000}") long windowMs,
+                              @Value("${queries.dedup.max-entries:20000}") int maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.bands = Math.max(1, bands);
+        this.rows = Math.max(1, rows);
+        this.shingleSize = Math.max(1, shingleSize);
+        this.windowMs = windowMs;
+        this.maxEntries = Math.max(1, maxEntries);
+        // Fixed seed: signatures of the same text must agree across restarts and replicas.
+        SplittableRandom random = new SplittableRandom(0x4d696e48L);
+        int hashes = this.bands * this.rows;
+        this.multipliers = new long[hashes];
+        this.increments = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            increments[i] = random.nextLong();
+        }
+        this.duplicates = Counter.builder("intelliroute.queries.duplicates")
+                .description("Queries linked to a near-duplicate canonical query")
+                .register(meterRegistry);
+        Gauge.builder("intelliroute.queries.dedup.index.size", this, NearDuplicateIndex::size)
+                .description("Canonical queries held in the near-duplicate index")
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusNanos(windowMs * 1_000_000);
+        Query recent = new Query(Criteria.where("createdAt").gte(since).and("duplicateOf").is(null))
+                .with(Sort.by("createdAt"));
+        recent.fields().include("id", "description", "createdAt");
+        int loaded = 0;
+        try (Stream<SupportQuery> queries = mongoTemplate.stream(recent, SupportQuery.class)) {
+            for (SupportQuery query : (Iterable<SupportQuery>) queries::iterator) {
+                int[] signature = signature(query.getDescription());
+                if (signature != null && query.getCreatedAt() != null) {
+                    long createdAt = query.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    synchronized (this) {
+                        insert(new Entry(query.getId(), signature, createdAt));
+                    }
+                    loaded++;
+                }
+            }
+        }
+        log.info("Near-duplicate index rebuilt with {} recent queries", loaded);
+    }
+
+    /**
+     * Returns the id of the canonical query {@code query} duplicates, if any. The query itself is not indexed;
+     * see {@link #register}.
+     */
+    public Optional<String> canonicalOf(SupportQuery query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        int[] signature = signature(query.getDescription());
+        if (signature == null) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            evict(System.currentTimeMillis());
+            Entry best = null;
+            int bestShared = (int) Math.ceil(threshold * signature.length) - 1;
+            for (int band = 0; band < bands; band++) {
+                List<Entry> bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry candidate : bucket) {
+                    int shared = shared(signature, candidate.signature);
+                    if (shared > bestShared) {
+                        best = candidate;
+                        bestShared = shared;
+                    }
+                }
+            }
+            return best == null ? Optional.empty() : Optional.of(best.id);
+        }
+    }
+
+    /**
+     * Records a query that has been saved: a duplicate is counted, any other query is indexed as canonical.
+     */
+    public void register(SupportQuery saved) {
+        if (!enabled) {
+            return;
+        }
+        if (saved.getDuplicateOf() != null) {
+            duplicates.increment();
+            return;
+        }
+        int[] signature = signature(saved.getDescription());
+        if (signature != null) {
+            synchronized (this) {
+                insert(new Entry(saved.getId(), signature, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * MinHash signature over the character shingles of the description, lower-cased with runs of anything but
+     * letters and digits collapsed to one space. Returns {@code null} for a description with no such characters.
+     */
+    int[] signature(String description) {
+        if (description == null) {
+            return null;
+        }
+        char[] text = new char[description.length()];
+        int length = 0;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                text[length++] = Character.toLowerCase(c);
+            } else if (length > 0 && text[length - 1] != ' ') {
+                text[length++] = ' ';
+            }
+        }
+        if (length > 0 && text[length - 1] == ' ') {
+            length--;
+        }
+        if (length == 0) {
+            return null;
+        }
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int size = Math.min(shingleSize, length);
+        for (int start = 0; start + size <= length; start++) {
+            long shingle = 0xcbf29ce484222325L;
+            for (int i = start; i < start + size; i++) {
+                shingle = (shingle ^ text[i]) * 0x100000001b3L;
+            }
+            for (int h = 0; h < signature.length; h++) {
+                int value = (int) ((multipliers[h] * shingle + increments[h]) >>> 33);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private void insert(Entry entry) {
+        entries.addLast(entry);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(entry.signature, band), key -> new ArrayList<>(1)).add(entry);
+        }
+        evict(System.currentTimeMillis());
+    }
+
+    private void evict(long now) {
+        while (!entries.isEmpty()
+                && (entries.size() > maxEntries || entries.peekFirst().createdAt < now - windowMs)) {
+            Entry oldest = entries.removeFirst();
+            for (int band = 0; band < bands; band++) {
+                long key = bandKey(oldest.signature, band);
+                List<Entry> bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(oldest) && bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = (key ^ signature[i]) * 0x9e3779b97f4a7c15L;
+        }
+        return key ^ (key >>> 29);
+    }
+
+    private static int shared(int[] a, int[] b) {
+        int shared = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    private record Entry(String id, int[] signature, long createdAt) {
+    }
+}
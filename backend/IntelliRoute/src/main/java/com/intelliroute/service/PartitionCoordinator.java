@@ -0,0 +1,313 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.PartitionsChangedEvent;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.model.PartitionLease;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SchedulerNode;
+import com.intelliroute.model.SupportQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits pending queries into {@code assignment.partitions.count} partitions by a hash of their id and lets
+ * each replica work only on the partitions it holds a Mongo lease for. Every node heartbeats its membership
+ * and leases; it takes free or expired partitions up to its fair share ({@code count / live nodes}) and gives
+ * back any surplus, so partitions spread out as nodes join and are taken over within one lease TTL when a
+ * node dies. Leases use wall-clock expiry, so node clocks must be kept in sync.
+ * <p>
+ * Queries created on other nodes reach the owner through change streams when enabled, and otherwise through
+ * a short poll of the owned partitions.
+ */
+@Component
+@Slf4j
+public class PartitionCoordinator {
+
+    /**
+     * Fixed number of hash buckets stored on each query; a partition is a bucket modulo the partition count,
+     * so the count can change without rewriting queries.
+     */
+    public static final int BUCKETS = 1024;
+
+    private static final int SEEN_LIMIT = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int count;
+    private final Duration leaseTtl;
+    private final Duration margin;
+    private final Duration pollOverlap;
+    private final boolean changeStreams;
+    private final String nodeId;
+
+    private volatile Map<Integer, Instant> owned = Map.of();
+    private volatile List<Integer> ownedBuckets = List.of();
+    private LocalDateTime lastPoll;
+    private final Map<String, Boolean> seen = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SEEN_LIMIT;
+        }
+    });
+
+    public PartitionCoordinator(MongoTemplate mongoTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${assignment.partitions.enabled:false}") boolean enabled,
+                                @Value("${assignment.partitions.count:16}") int count,
+                                @Value("${assignment.partitions.lease-ttl-ms:15000}") long leaseTtlMs,
+                                @Value("${assignment.partitions.heartbeat-ms:5000}") long heartbeatMs,
+                                @Value("${assignment.partitions.poll-ms:2000}") long pollMs,
+                                @Value("${assignment.dispatch.change-streams:false}") boolean changeStreams,
+                                @Value("${assignment.partitions.node-id:}") String nodeId) {
+        if (count < 1 || count > BUCKETS) {
+            throw new IllegalArgumentException("assignment.partitions.count must be between 1 and " + BUCKETS);
+        }
+        if (enabled && heartbeatMs * 2 >= leaseTtlMs) {
+            throw new IllegalArgumentException("assignment.partitions.lease-ttl-ms must exceed two heartbeats");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.count = count;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMs);
+        this.margin = Duration.ofMillis(heartbeatMs);
+        this.pollOverlap = Duration.ofMillis(Math.max(5000, pollMs * 2));
+        this.changeStreams = changeStreams;
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId + "-" + suffix : suffix;
+        Gauge.builder("intelliroute.partitions.owned", this, coordinator -> coordinator.owned.size())
+                .description("Scheduling partitions leased by this node")
+                .register(meterRegistry);
+    }
+
+    public static int bucketOf(String queryId) {
+        return Math.floorMod(queryId.hashCode(), BUCKETS);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether this node may process the query now: always when partitioning is off, otherwise only while it
+     * holds the query's partition with at least one heartbeat of lease left.
+     */
+    public boolean owns(SupportQuery query) {
+        if (!enabled) {
+            return true;
+        }
+        if (query == null || query.getId() == null) {
+            return false;
+        }
+        Instant expiresAt = owned.get(partitionOf(query));
+        return expiresAt != null && Instant.now().plus(margin).isBefore(expiresAt);
+    }
+
+    /**
+     * Buckets of the owned partitions, for filtering in Mongo; {@code null} when partitioning is off.
+     */
+    public List<Integer> ownedBuckets() {
+        return enabled ? ownedBuckets : null;
+    }
+
+    public int partitionOf(SupportQuery query) {
+        Integer bucket = query.getPartitionBucket();
+        return (bucket != null ? bucket : bucketOf(query.getId())) % count;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(SupportQuery.class).ensureIndex(new Index()
+                    .on("status", Sort.Direction.ASC)
+                    .on("partition_bucket", Sort.Direction.ASC)
+                    .on("created_at", Sort.Direction.ASC));
+            mongoTemplate.indexOps(SchedulerNode.class).ensureIndex(new Index()
+                    .on("expires_at", Sort.Direction.ASC)
+                    .expire(Duration.ofMinutes(1)));
+        } catch (RuntimeException ex) {
+            log.warn("Could not create partition indexes: {}", ex.getMessage());
+        }
+        backfillBuckets();
+        log.info("Partitioned scheduling enabled as node {} over {} partitions", nodeId, count);
+        heartbeat();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!enabled) {
+            return;
+        }
+        // Hand the partitions over right away instead of letting them expire.
+        owned.keySet().forEach(this::release);
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(nodeId)), SchedulerNode.class);
+        owned = Map.of();
+    }
+
+    @Scheduled(initialDelayString = "${assignment.partitions.heartbeat-ms:5000}",
+            fixedDelayString = "${assignment.partitions.heartbeat-ms:5000}")
+    public synchronized void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant until = now.plus(leaseTtl);
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(nodeId)),
+                new Update().set("expires_at", until), SchedulerNode.class);
+        long liveNodes = mongoTemplate.count(Query.query(Criteria.where("expires_at").gt(now)), SchedulerNode.class);
+        int fairShare = (int) Math.ceil((double) count / Math.max(1, liveNodes));
+
+        Map<Integer, Instant> held = new HashMap<>();
+        for (Integer partition : owned.keySet()) {
+            if (renew(partition, until)) {
+                held.put(partition, until);
+            } else {
+                log.warn("Lost the lease on partition {}", partition);
+            }
+        }
+        List<Integer> surplus = new ArrayList<>(held.keySet());
+        Collections.shuffle(surplus);
+        for (int i = 0; held.size() > fairShare && i < surplus.size(); i++) {
+            release(surplus.get(i));
+            held.remove(surplus.get(i));
+        }
+        if (held.size() < fairShare) {
+            List<Integer> candidates = new ArrayList<>();
+            for (int partition = 0; partition < count; partition++) {
+                if (!held.containsKey(partition)) {
+                    candidates.add(partition);
+                }
+            }
+            // Random order keeps nodes that start together from contending for the same partitions.
+            Collections.shuffle(candidates);
+            for (Integer partition : candidates) {
+                if (held.size() >= fairShare) {
+                    break;
+                }
+                if (acquire(partition, now, until)) {
+                    held.put(partition, until);
+                }
+            }
+        }
+
+        boolean changed = !held.keySet().equals(owned.keySet());
+        owned = Map.copyOf(held);
+        if (changed) {
+            List<Integer> buckets = new ArrayList<>();
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                if (held.containsKey(bucket % count)) {
+                    buckets.add(bucket);
+                }
+            }
+            ownedBuckets = List.copyOf(buckets);
+            log.info("Node {} now holds {} of {} partitions ({} live nodes)", nodeId, held.size(), count, liveNodes);
+            eventPublisher.publishEvent(new PartitionsChangedEvent(Set.copyOf(held.keySet())));
+        }
+    }
+
+    @EventListener
+    public void onQueryCreated(QueryCreatedEvent event) {
+        if (enabled && event.query().getId() != null) {
+            seen.put(event.query().getId(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Picks up queries created on other nodes in the owned partitions. The window overlaps the previous poll to
+     * tolerate clock skew and late commits; queries already seen are not announced again.
+     */
+    @Scheduled(initialDelayString = "${assignment.partitions.poll-ms:2000}",
+            fixedDelayString = "${assignment.partitions.poll-ms:2000}")
+    public void pollOwnedPartitions() {
+        List<Integer> buckets = ownedBuckets;
+        if (!enabled || changeStreams || buckets.isEmpty()) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = (lastPoll == null ? started : lastPoll).minus(pollOverlap);
+        lastPoll = started;
+        List<SupportQuery> found = mongoTemplate.find(Query.query(Criteria.where("status").is(QueryStatus.PENDING)
+                .and("partitionBucket").in(buckets)
+                .and("createdAt").gte(since)), SupportQuery.class);
+        for (SupportQuery query : found) {
+            if (seen.putIfAbsent(query.getId(), Boolean.TRUE) == null) {
+                eventPublisher.publishEvent(new QueryCreatedEvent(query));
+            }
+        }
+    }
+
+    // Queries created before partitioning was enabled have no bucket and would otherwise never be scheduled.
+    private void backfillBuckets() {
+        List<SupportQuery> unbucketed = mongoTemplate.find(Query.query(Criteria.where("status")
+                .in(QueryStatus.PENDING, QueryStatus.ESCALATED)
+                .and("partitionBucket").exists(false)), SupportQuery.class);
+        for (SupportQuery query : unbucketed) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(query.getId())),
+                    new Update().set("partitionBucket", bucketOf(query.getId())), SupportQuery.class);
+        }
+        if (!unbucketed.isEmpty()) {
+            log.info("Assigned partition buckets to {} existing queries", unbucketed.size());
+        }
+    }
+
+    private boolean acquire(int partition, Instant now, Instant until) {
+        Query query = Query.query(Criteria.where("id").is(partition).orOperator(
+                Criteria.where("owner").is(nodeId),
+                Criteria.where("expires_at").lt(now)));
+        Update update = new Update().set("owner", nodeId).set("expires_at", until).inc("epoch", 1);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true).upsert(true), PartitionLease.class) != null;
+        } catch (DuplicateKeyException ex) {
+            // Another node holds a live lease, so the upsert collided with its document.
+            return false;
+        }
+    }
+
+    private boolean renew(int partition, Instant until) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(partition).and("owner").is(nodeId)),
+                new Update().set("expires_at", until),
+                PartitionLease.class).getMatchedCount() > 0;
+    }
+
+    private void release(int partition) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(partition).and("owner").is(nodeId)),
+                new Update().set("expires_at", Instant.EPOCH),
+                PartitionLease.class);
+    }
+}
@@ -0,0 +1,213 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.PartitionsChangedEvent;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory dispatch order for pending queries: by priority class, then earliest {@code slaDueAt} first
+ * within a class. A query is promoted one class for every {@code assignment.queue.aging-ms} it has waited,
+ * so a backlog of P1s cannot starve P3s forever. The queue is fed by query events and only reconciled
+ * against Mongo periodically. Drained queries stay in flight until the cycle hands them back through
+ * {@link #requeue}, so neither events nor reconciliation queue them a second time meanwhile.
+ */
+@Component
+@Slf4j
+public class PendingQueue {
+
+    private static final int CLASSES = Priority.values().length;
+
+    private static final Comparator<Entry> EARLIEST_DEADLINE_FIRST = Comparator
+            .comparing((Entry e) -> e.query.getSlaDueAt(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(e -> e.query.getCreatedAt(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(e -> e.sequence);
+
+    private static final Comparator<Entry> NEXT_PROMOTION_FIRST = Comparator
+            .comparing((Entry e) -> e.promoteAt)
+            .thenComparingLong(e -> e.sequence);
+
+    private final QueryService queryService;
+    private final PartitionCoordinator partitionCoordinator;
+    private final Duration aging;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<NavigableSet<Entry>> byClass = new ArrayList<>(CLASSES);
+    private final List<NavigableSet<Entry>> byPromotion = new ArrayList<>(CLASSES);
+    private long sequence;
+
+    public PendingQueue(QueryService queryService,
+                        PartitionCoordinator partitionCoordinator,
+                        @Value("${assignment.queue.aging-ms:600000}") long agingMs) {
+        this.queryService = queryService;
+        this.partitionCoordinator = partitionCoordinator;
+        this.aging = Duration.ofMillis(Math.max(1, agingMs));
+        for (int i = 0; i < CLASSES; i++) {
+            byClass.add(new TreeSet<>(EARLIEST_DEADLINE_FIRST));
+            byPromotion.add(new TreeSet<>(NEXT_PROMOTION_FIRST));
+        }
+    }
+
+    /**
+     * Loads pending queries from Mongo, adding the ones this node missed and dropping the ones that are no
+     * longer pending or whose partition this node no longer owns. Runs at startup, whenever the owned
+     * partitions change and as a low-frequency safety net.
+     */
+    @EventListener({ApplicationReadyEvent.class, PartitionsChangedEvent.class})
+    @Scheduled(initialDelayString = "${assignment.queue.reconcile-ms:60000}",
+            fixedDelayString = "${assignment.queue.reconcile-ms:60000}")
+    public void reconcile() {
+        List<SupportQuery> pending = queryService.findPending().stream()
+                .filter(partitionCoordinator::owns)
+                .toList();
+        Set<String> ids = new HashSet<>();
+        synchronized (this) {
+            for (SupportQuery query : pending) {
+                ids.add(query.getId());
+                if (!entries.containsKey(query.getId()) && !inFlight.contains(query.getId())) {
+                    insert(query);
+                }
+            }
+            List.copyOf(entries.keySet()).stream().filter(id -> !ids.contains(id)).forEach(this::remove);
+        }
+        log.debug("Pending queue reconciled with {} queries", pending.size());
+    }
+
+    // Queue the query before the dispatcher is woken up for it.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onQueryCreated(QueryCreatedEvent event) {
+        add(event.query());
+    }
+
+    @EventListener
+    public void onStatusChanged(QueryStatusChangedEvent event) {
+        SupportQuery query = event.query();
+        if (query.getStatus() == QueryStatus.PENDING) {
+            add(query);
+        } else {
+            remove(query.getId());
+        }
+    }
+
+    public synchronized void add(SupportQuery query) {
+        if (query == null || query.getId() == null || query.getStatus() != QueryStatus.PENDING
+                || entries.containsKey(query.getId()) || inFlight.contains(query.getId())
+                || !partitionCoordinator.owns(query)) {
+            return;
+        }
+        insert(query);
+    }
+
+    public synchronized void addAll(Collection<SupportQuery> queries) {
+        queries.forEach(this::add);
+    }
+
+    public synchronized void remove(String queryId) {
+        Entry entry = entries.remove(queryId);
+        if (entry != null) {
+            byClass.get(entry.cls).remove(entry);
+            byPromotion.get(entry.cls).remove(entry);
+        }
+    }
+
+    /**
+     * Removes and returns every queued query in dispatch order. The queries are in flight until passed to
+     * {@link #requeue}.
+     */
+    public synchronized List<SupportQuery> drain() {
+        age(LocalDateTime.now());
+        List<SupportQuery> ordered = new ArrayList<>(entries.size());
+        for (int cls = 0; cls < CLASSES; cls++) {
+            byClass.get(cls).forEach(entry -> ordered.add(entry.query));
+            byClass.get(cls).clear();
+            byPromotion.get(cls).clear();
+        }
+        inFlight.addAll(entries.keySet());
+        entries.clear();
+        return ordered;
+    }
+
+    /**
+     * Ends the flight of drained queries; the ones still pending are queued again for the next cycle.
+     */
+    public synchronized void requeue(Collection<SupportQuery> drained) {
+        for (SupportQuery query : drained) {
+            inFlight.remove(query.getId());
+            add(query);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void insert(SupportQuery query) {
+        LocalDateTime now = LocalDateTime.now();
+        int base = priorityClass(query.getPriority());
+        LocalDateTime arrived = query.getCreatedAt() == null ? now : query.getCreatedAt();
+        long waited = Math.max(0, Duration.between(arrived, now).dividedBy(aging));
+        int cls = (int) Math.max(0, base - waited);
+
+        Entry entry = new Entry(query, sequence++);
+        entry.cls = cls;
+        entry.promoteAt = arrived.plus(aging.multipliedBy(base - cls + 1L));
+        entries.put(query.getId(), entry);
+        byClass.get(cls).add(entry);
+        byPromotion.get(cls).add(entry);
+    }
+
+    private void age(LocalDateTime now) {
+        // Promote into the lower classes first, so an entry moves at most one class per pass.
+        for (int cls = 1; cls < CLASSES; cls++) {
+            NavigableSet<Entry> due = byPromotion.get(cls);
+            while (!due.isEmpty() && !due.first().promoteAt.isAfter(now)) {
+                Entry entry = due.pollFirst();
+                byClass.get(cls).remove(entry);
+                entry.cls = cls - 1;
+                entry.promoteAt = entry.promoteAt.plus(aging);
+                byClass.get(entry.cls).add(entry);
+                byPromotion.get(entry.cls).add(entry);
+            }
+        }
+    }
+
+    private static int priorityClass(Priority priority) {
+        return (priority == null ? Priority.P3 : priority).ordinal();
+    }
+
+    private static final class Entry {
+        private final SupportQuery query;
+        private final long sequence;
+        private int cls;
+        private LocalDateTime promoteAt;
+
+        private Entry(SupportQuery query, long sequence) {
+            this.query = query;
+            this.sequence = sequence;
+        }
+    }
+}
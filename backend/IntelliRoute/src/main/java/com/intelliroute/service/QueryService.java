@@ -1,13 +1,26 @@
 package com.intelliroute.service;
 
 import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.Priority;
 import com.intelliroute.model.QueryStatus;
 import com.intelliroute.model.SupportQuery;
 import com.intelliroute.repository.SupportQueryRepository;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,20 +28,49 @@ import org.springframework.stereotype.Service;
 public class QueryService {
 
     private final SupportQueryRepository supportQueryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursorPager cursorPager;
+    private final NearDuplicateIndex nearDuplicateIndex;
 
     public SupportQuery createQuery(CreateQueryRequest request) {
-        SupportQuery query = SupportQuery.builder()
+        SupportQuery query = newQuery(request);
+        nearDuplicateIndex.canonicalOf(query)
+                .flatMap(supportQueryRepository::findById)
+                .ifPresent(canonical -> linkDuplicate(query, canonical));
+        SupportQuery saved = supportQueryRepository.insert(query);
+        nearDuplicateIndex.register(saved);
+        eventPublisher.publishEvent(new QueryCreatedEvent(saved));
+        return saved;
+    }
+
+    static SupportQuery newQuery(CreateQueryRequest request) {
+        // The id is generated here so the partition bucket can be stored with the first write.
+        String id = new ObjectId().toHexString();
+        return SupportQuery.builder()
+                .id(id)
+                .partitionBucket(PartitionCoordinator.bucketOf(id))
                 .description(request.getDescription())
                 .priority(request.getPriority())
                 .tags(request.getTags())
                 .domain(request.getDomain())
                 .slaDueAt(request.getSlaDueAt())
                 .build();
-        return supportQueryRepository.save(query);
     }
 
-    public List<SupportQuery> listAll() {
-        return supportQueryRepository.findAll();
+    /**
+     * Links a near-duplicate to its canonical query and reuses the canonical score, if it has one yet.
+     */
+    static void linkDuplicate(SupportQuery query, SupportQuery canonical) {
+        query.setDuplicateOf(canonical.getId());
+        query.setComplexityScore(canonical.getComplexityScore());
+    }
+
+    public CursorPage<Object> listPage(QueryStatus status, Priority priority, ListParams params) {
+        return cursorPager.page(SupportQuery.class, listCriteria(status, priority, params), params);
+    }
+
+    public void streamAll(QueryStatus status, Priority priority, ListParams params, OutputStream out) {
+        cursorPager.stream(SupportQuery.class, listCriteria(status, priority, params), params, out);
     }
 
     public List<SupportQuery> findPending() {
@@ -39,13 +81,83 @@ public class QueryService {
         return supportQueryRepository.findByStatusAndSlaDueAtBefore(QueryStatus.PENDING, LocalDateTime.now());
     }
 
+    public List<SupportQuery> findPendingWithSla() {
+        return supportQueryRepository.findByStatusAndSlaDueAtNotNull(QueryStatus.PENDING);
+    }
+
+    public long countByStatus(QueryStatus status) {
+        return supportQueryRepository.countByStatus(status);
+    }
+
     public Optional<SupportQuery> findById(String id) {
         return supportQueryRepository.findById(id);
     }
 
+    public Optional<SupportQuery> claimForAssignment(SupportQuery query) {
+        return published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.PENDING, QueryStatus.ESCALATED), QueryStatus.ASSIGNED, query.getComplexityScore()));
+    }
+
+    public Optional<SupportQuery> releaseClaim(SupportQuery query, QueryStatus previousStatus) {
+        return published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.ASSIGNED), previousStatus, null));
+    }
+
+    public Optional<SupportQuery> escalate(SupportQuery query) {
+        Optional<SupportQuery> escalated = published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.PENDING), QueryStatus.ESCALATED, query.getComplexityScore()));
+        escalated.ifPresent(q -> query.setStatus(QueryStatus.ESCALATED));
+        return escalated;
+    }
+
+    /**
+     * Resolves an assigned (or escalated) query without publishing a status event; callers writing inside a
+     * transaction publish once it has committed.
+     */
+    public Optional<SupportQuery> markResolved(String queryId) {
+        return supportQueryRepository.transitionStatus(queryId,
+                List.of(QueryStatus.ASSIGNED, QueryStatus.ESCALATED), QueryStatus.RESOLVED, null);
+    }
+
+    /**
+     * Returns up to {@code limit} unassigned queries, most urgent priority first, restricted to the given
+     * partition buckets unless {@code buckets} is {@code null}.
+     */
+    public List<SupportQuery> findWaiting(int limit, Collection<Integer> buckets) {
+        List<QueryStatus> waiting = List.of(QueryStatus.PENDING, QueryStatus.ESCALATED);
+        PageRequest page = PageRequest.of(0, limit, Sort.by("priority", "createdAt"));
+        if (buckets == null) {
+            return supportQueryRepository.findByStatusIn(waiting, page);
+        }
+        return buckets.isEmpty() ? List.of()
+                : supportQueryRepository.findByStatusInAndPartitionBucketIn(waiting, buckets, page);
+    }
+
     public SupportQuery save(SupportQuery query) {
         query.setUpdatedAt(LocalDateTime.now());
-        return supportQueryRepository.save(query);
+        SupportQuery saved = supportQueryRepository.save(query);
+        eventPublisher.publishEvent(new QueryStatusChangedEvent(saved));
+        return saved;
+    }
+
+    Criteria listCriteria(QueryStatus status, Priority priority, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        if (priority != null) {
+            filters.add(Criteria.where("priority").is(priority));
+        }
+        return cursorPager.criteria(filters, "createdAt", params);
+    }
+
+    public void publishStatusChanged(SupportQuery query) {
+        eventPublisher.publishEvent(new QueryStatusChangedEvent(query));
+    }
+
+    private Optional<SupportQuery> published(Optional<SupportQuery> transitioned) {
+        transitioned.ifPresent(this::publishStatusChanged);
+        return transitioned;
     }
 }
 
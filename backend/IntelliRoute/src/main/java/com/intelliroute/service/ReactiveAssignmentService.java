@@ -0,0 +1,248 @@
+package com.intelliroute.service;
+
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.AssignmentChangedEvent;
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.repository.ReactiveAssignmentRepository;
+import com.intelliroute.repository.ReactiveEngineerRepository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking assignment pipeline used when the app runs as a reactive web application: queued queries are
+ * scored through {@link AIClient}, matched against the in-memory {@link EngineerIndex} and placed with the same
+ * conditional claim, reserve and insert steps as {@link AssignmentService#assign}, all over the reactive driver.
+ * Placements run one at a time so every selection sees the capacity reserved by the previous one.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAssignmentService {
+
+    private final ReactiveQueryService queryService;
+    private final ReactiveEngineerRepository engineerRepository;
+    private final ReactiveAssignmentRepository assignmentRepository;
+    private final AssignmentService assignmentService;
+    private final AIClient aiClient;
+    private final EngineerIndex engineerIndex;
+    private final EngineerSelector engineerSelector;
+    private final PendingQueue pendingQueue;
+    private final PartitionCoordinator partitionCoordinator;
+    private final ReactiveCursorPager cursorPager;
+    private final RoutingMetrics routingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler blockingScheduler;
+
+    @Value("${queries.dedup.route-to-canonical:false}")
+    private boolean routeDuplicates;
+
+    public Mono<Void> runAssignmentCycle() {
+        return Mono.defer(() -> {
+            List<SupportQuery> drained = pendingQueue.drain();
+            List<SupportQuery> pending = drained.stream().filter(partitionCoordinator::owns).toList();
+            if (pending.isEmpty()) {
+                pendingQueue.requeue(drained);
+                return Mono.empty();
+            }
+            log.debug("Running assignment cycle for {} pending queries", pending.size());
+            // Queries that lost a race for an engineer stay pending and wait for the next cycle.
+            return routingMetrics.timeCycle("queue", place(pending))
+                    .doFinally(signal -> pendingQueue.requeue(drained));
+        });
+    }
+
+    private Mono<Void> place(List<SupportQuery> queries) {
+        Mono<List<SupportQuery>> pending = routeDuplicates
+                ? Flux.fromIterable(queries)
+                        .filterWhen(query -> attachToCanonical(query).hasElement().map(attached -> !attached))
+                        .collectList()
+                : Mono.just(queries);
+        return pending
+                .flatMapMany(aiClient::scoreAll)
+                .concatMap(query -> engineerSelector.select(query)
+                        .map(engineer -> assign(query, engineer).then())
+                        .orElseGet(() -> escalate(query)))
+                .then();
+    }
+
+    private Mono<Void> escalate(SupportQuery query) {
+        return queryService.escalate(query)
+                .doOnNext(escalated -> {
+                    routingMetrics.escalated(RoutingMetrics.NO_ENGINEER, 1);
+                    log.warn("No available engineer; escalated query {}", query.getId());
+                })
+                .then();
+    }
+
+    /**
+     * Places the query on the engineer; see {@link AssignmentService#assign}. Completes empty if the query was
+     * already taken or the engineer is full.
+     */
+    public Mono<Assignment> assign(SupportQuery query, Engineer engineer) {
+        QueryStatus previousStatus = query.getStatus();
+        return queryService.claimForAssignment(query)
+                .switchIfEmpty(Mono.fromRunnable(() -> {
+                    routingMetrics.rejected(RoutingMetrics.CLAIMED, 1);
+                    log.warn("Query {} was already taken by another cycle; skipping assignment", query.getId());
+                }))
+                .flatMap(claimed -> engineerRepository.reserveCapacity(engineer.getId())
+                        .switchIfEmpty(Mono.defer(() -> {
+                            routingMetrics.rejected(RoutingMetrics.CAPACITY, 1);
+                            log.warn("Engineer {} is at capacity; skipping assignment", engineer.getId());
+                            return queryService.releaseClaim(query, previousStatus)
+                                    .then(engineerRepository.findById(engineer.getId()))
+                                    .doOnNext(engineerIndex::upsert)
+                                    .then(Mono.empty());
+                        })))
+                .flatMap(reserved -> {
+                    engineer.setCurrentLoad(reserved.getCurrentLoad());
+                    engineerIndex.upsert(reserved);
+                    Assignment assignment = Assignment.builder()
+                            .engineerId(engineer.getId())
+                            .queryId(query.getId())
+                            .allocationPercent(1.0)
+                            .assignedAt(LocalDateTime.now())
+                            .status(AssignmentStatus.ACTIVE)
+                            .build();
+                    return assignmentRepository.save(assignment)
+                            .onErrorResume(ex -> engineerRepository.releaseCapacity(engineer.getId())
+                                    .doOnNext(engineerIndex::upsert)
+                                    .then(queryService.releaseClaim(query, previousStatus))
+                                    .then(Mono.error(ex)));
+                })
+                .flatMap(this::published)
+                .doOnNext(saved -> {
+                    query.setStatus(QueryStatus.ASSIGNED);
+                    log.info("Assigned query {} (score {}) to engineer {} ({})",
+                            query.getId(), query.getComplexityScore(), engineer.getId(), engineer.getDesignation());
+                });
+    }
+
+    /**
+     * See {@link AssignmentService#attachToCanonical}.
+     */
+    public Mono<Assignment> attachToCanonical(SupportQuery query) {
+        if (query.getDuplicateOf() == null) {
+            return Mono.empty();
+        }
+        QueryStatus previousStatus = query.getStatus();
+        return assignmentRepository.findFirstByQueryIdAndStatus(query.getDuplicateOf(), AssignmentStatus.ACTIVE)
+                .flatMap(canonical -> queryService.claimForAssignment(query)
+                        .flatMap(claimed -> assignmentRepository.save(Assignment.builder()
+                                        .engineerId(canonical.getEngineerId())
+                                        .queryId(query.getId())
+                                        .allocationPercent(0.0)
+                                        .assignedAt(LocalDateTime.now())
+                                        .status(AssignmentStatus.ACTIVE)
+                                        .build())
+                                .onErrorResume(ex -> queryService.releaseClaim(query, previousStatus)
+                                        .then(Mono.error(ex)))))
+                .flatMap(this::published)
+                .doOnNext(saved -> {
+                    query.setStatus(QueryStatus.ASSIGNED);
+                    log.info("Attached query {} to engineer {} with its near-duplicate {}",
+                            query.getId(), saved.getEngineerId(), query.getDuplicateOf());
+                });
+    }
+
+    /**
+     * See {@link AssignmentService#complete(String)}; completes empty if the assignment does not exist.
+     */
+    public Mono<Assignment> complete(String assignmentId) {
+        return completeAll(List.of(assignmentId))
+                .flatMap(completed -> completed.isEmpty()
+                        ? assignmentRepository.findById(assignmentId).flatMap(existing ->
+                                existing.getStatus() == AssignmentStatus.COMPLETED ? Mono.just(existing)
+                                        : Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                                        "Assignment " + assignmentId + " is " + existing.getStatus())))
+                        : Mono.just(completed.getFirst()));
+    }
+
+    /**
+     * See {@link AssignmentService#completeAll(Collection)}. Each step is a conditional update, and an assignment
+     * whose query or capacity could not be updated is reopened, so a failure never leaks the capacity.
+     */
+    public Mono<List<Assignment>> completeAll(Collection<String> assignmentIds) {
+        return Flux.fromStream(assignmentIds.stream().distinct())
+                .concatMap(this::completeOne)
+                .collectList()
+                .doOnNext(completions -> {
+                    long freed = completions.stream().filter(c -> c.engineer().isPresent()).count();
+                    handOff(freed).subscribe(null, err -> log.warn("Hand-off of {} freed slots failed; the next "
+                            + "cycle will place the waiting queries: {}", freed, err.getMessage()));
+                })
+                .map(completions -> completions.stream().map(Completion::assignment).toList());
+    }
+
+    private record Completion(Assignment assignment, Optional<Engineer> engineer) {
+    }
+
+    private Mono<Completion> completeOne(String assignmentId) {
+        return assignmentRepository.complete(assignmentId)
+                .flatMap(assignment -> queryService.markResolved(assignment.getQueryId())
+                        .then(assignment.getAllocationPercent() > 0
+                                ? engineerRepository.releaseCapacity(assignment.getEngineerId())
+                                : Mono.empty())
+                        .onErrorResume(err -> assignmentRepository.reopen(assignmentId).then(Mono.error(err)))
+                        .doOnNext(engineerIndex::upsert)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(engineer -> published(assignment).thenReturn(engineer))
+                        .map(engineer -> {
+                            log.info("Completed assignment {} (query {}, engineer {})", assignment.getId(),
+                                    assignment.getQueryId(), assignment.getEngineerId());
+                            return new Completion(assignment, engineer);
+                        }));
+    }
+
+    private Mono<Assignment> published(Assignment assignment) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(new AssignmentChangedEvent(assignment)))
+                .subscribeOn(blockingScheduler)
+                .thenReturn(assignment);
+    }
+
+    // Freed capacity goes straight to the most urgent waiting queries instead of waiting for the next cycle. The
+    // hand-off is subscribed separately, so the completion does not wait for it.
+    private Mono<Void> handOff(long freed) {
+        if (freed == 0) {
+            return Mono.empty();
+        }
+        return queryService.findWaiting((int) freed, partitionCoordinator.ownedBuckets())
+                .collectList()
+                .flatMap(waiting -> {
+                    if (waiting.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    log.debug("Handing {} freed slots to {} waiting queries", freed, waiting.size());
+                    return routingMetrics.timeCycle("handoff", place(waiting));
+                });
+    }
+
+    public Mono<CursorPage<Object>> listPage(AssignmentStatus status, String engineerId, ListParams params) {
+        return cursorPager.page(Assignment.class, assignmentService.listCriteria(status, engineerId, params), params);
+    }
+
+    public Flux<Object> streamAll(AssignmentStatus status, String engineerId, ListParams params) {
+        return cursorPager.stream(Assignment.class, assignmentService.listCriteria(status, engineerId, params),
+                params);
+    }
+}
@@ -0,0 +1,44 @@
+package com.intelliroute.service;
+
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CursorPager} over the reactive driver: the same keyset pages and projections, with streams emitted as
+ * a {@link Flux} that the WebFlux NDJSON encoder writes with backpressure.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCursorPager {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CursorPager cursorPager;
+
+    public <T> Mono<CursorPage<Object>> page(Class<T> type, Criteria criteria, ListParams params) {
+        return Mono.defer(() -> {
+            Query query = cursorPager.pageQuery(criteria, params);
+            Set<String> fields = cursorPager.project(type, query, params.getFields());
+            return mongoTemplate.find(query, type)
+                    .collectList()
+                    .map(found -> cursorPager.toPage(found, cursorPager.limit(params), fields));
+        });
+    }
+
+    public <T> Flux<Object> stream(Class<T> type, Criteria criteria, ListParams params) {
+        return Flux.defer(() -> {
+            Query query = cursorPager.streamQuery(criteria, params);
+            Set<String> fields = cursorPager.project(type, query, params.getFields());
+            return mongoTemplate.find(query, type).map(document -> cursorPager.shape(document, fields));
+        });
+    }
+}
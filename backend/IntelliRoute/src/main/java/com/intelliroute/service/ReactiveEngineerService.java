@@ -0,0 +1,51 @@
+package com.intelliroute.service;
+
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.EngineerRequest;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.EngineerCapacityChangedEvent;
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.repository.ReactiveEngineerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking counterpart of {@link EngineerService}, used when the app runs as a reactive web application.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveEngineerService {
+
+    private final ReactiveEngineerRepository engineerRepository;
+    private final EngineerService engineerService;
+    private final EngineerIndex engineerIndex;
+    private final ReactiveCursorPager cursorPager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler blockingScheduler;
+
+    public Mono<Engineer> createEngineer(EngineerRequest request) {
+        return Mono.fromSupplier(() -> EngineerService.newEngineer(request))
+                .flatMap(engineerRepository::save)
+                .doOnNext(engineerIndex::upsert)
+                // The index listener reloads the engineer from Mongo, so keep it off the event loop.
+                .flatMap(saved -> Mono.fromRunnable(() ->
+                                eventPublisher.publishEvent(new EngineerCapacityChangedEvent(saved.getId())))
+                        .subscribeOn(blockingScheduler)
+                        .thenReturn(saved));
+    }
+
+    public Mono<CursorPage<Object>> listPage(Designation designation, Boolean available, ListParams params) {
+        return cursorPager.page(Engineer.class, engineerService.listCriteria(designation, available, params), params);
+    }
+
+    public Flux<Object> streamAll(Designation designation, Boolean available, ListParams params) {
+        return cursorPager.stream(Engineer.class, engineerService.listCriteria(designation, available, params), params);
+    }
+}
@@ -0,0 +1,101 @@
+package com.intelliroute.service;
+
+import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.repository.ReactiveSupportQueryRepository;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking counterpart of {@link QueryService}, used when the app runs as a reactive web application.
+ * Application event listeners are synchronous and may block, so events are published on the blocking
+ * scheduler rather than on the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveQueryService {
+
+    private final ReactiveSupportQueryRepository supportQueryRepository;
+    private final QueryService queryService;
+    private final ReactiveCursorPager cursorPager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler blockingScheduler;
+    private final NearDuplicateIndex nearDuplicateIndex;
+
+    public Mono<SupportQuery> createQuery(CreateQueryRequest request) {
+        return Mono.fromSupplier(() -> QueryService.newQuery(request))
+                .flatMap(query -> Mono.justOrEmpty(nearDuplicateIndex.canonicalOf(query))
+                        .flatMap(supportQueryRepository::findById)
+                        .doOnNext(canonical -> QueryService.linkDuplicate(query, canonical))
+                        .thenReturn(query))
+                .flatMap(supportQueryRepository::insert)
+                .doOnNext(nearDuplicateIndex::register)
+                .flatMap(saved -> publish(new QueryCreatedEvent(saved)).thenReturn(saved));
+    }
+
+    public Mono<CursorPage<Object>> listPage(QueryStatus status, Priority priority, ListParams params) {
+        return cursorPager.page(SupportQuery.class, queryService.listCriteria(status, priority, params), params);
+    }
+
+    public Flux<Object> streamAll(QueryStatus status, Priority priority, ListParams params) {
+        return cursorPager.stream(SupportQuery.class, queryService.listCriteria(status, priority, params), params);
+    }
+
+    public Mono<SupportQuery> claimForAssignment(SupportQuery query) {
+        return published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.PENDING, QueryStatus.ESCALATED), QueryStatus.ASSIGNED, query.getComplexityScore()));
+    }
+
+    public Mono<SupportQuery> releaseClaim(SupportQuery query, QueryStatus previousStatus) {
+        return published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.ASSIGNED), previousStatus, null));
+    }
+
+    public Mono<SupportQuery> escalate(SupportQuery query) {
+        return published(supportQueryRepository.transitionStatus(query.getId(),
+                List.of(QueryStatus.PENDING), QueryStatus.ESCALATED, query.getComplexityScore()))
+                .doOnNext(escalated -> query.setStatus(QueryStatus.ESCALATED));
+    }
+
+    public Mono<SupportQuery> markResolved(String queryId) {
+        return published(supportQueryRepository.transitionStatus(queryId,
+                List.of(QueryStatus.ASSIGNED, QueryStatus.ESCALATED), QueryStatus.RESOLVED, null));
+    }
+
+    /**
+     * Same contract as {@link QueryService#findWaiting(int, Collection)}.
+     */
+    public Flux<SupportQuery> findWaiting(int limit, Collection<Integer> buckets) {
+        List<QueryStatus> waiting = List.of(QueryStatus.PENDING, QueryStatus.ESCALATED);
+        PageRequest page = PageRequest.of(0, limit, Sort.by("priority", "createdAt"));
+        if (buckets == null) {
+            return supportQueryRepository.findByStatusIn(waiting, page);
+        }
+        return buckets.isEmpty() ? Flux.empty()
+                : supportQueryRepository.findByStatusInAndPartitionBucketIn(waiting, buckets, page);
+    }
+
+    private Mono<SupportQuery> published(Mono<SupportQuery> transitioned) {
+        return transitioned.flatMap(query -> publish(new QueryStatusChangedEvent(query)).thenReturn(query));
+    }
+
+    private Mono<Void> publish(Object event) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(event)).subscribeOn(blockingScheduler).then();
+    }
+}
@@ -0,0 +1,226 @@
+package com.intelliroute.service;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.QueryStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Meters of the routing pipeline: time spent in each phase of an assignment cycle, scoring latency by source,
+ * queue depths, free capacity per designation, escalations and rejected placements. Timers publish histogram
+ * buckets so percentiles can be aggregated across replicas in Prometheus.
+ */
+@Component
+public class RoutingMetrics {
+
+    public static final String NO_ENGINEER = "no_engineer";
+    public static final String SLA = "sla";
+    public static final String CAPACITY = "capacity";
+    public static final String CLAIMED = "claimed";
+
+    public enum Phase {
+        FETCH, SCORE, SELECT, PERSIST
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final QueryService queryService;
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final AtomicLong escalatedQueries = new AtomicLong();
+    private volatile double batchScore = Double.NaN;
+    private volatile double batchGain = Double.NaN;
+
+    public RoutingMetrics(MeterRegistry meterRegistry,
+                          QueryService queryService,
+                          PendingQueue pendingQueue,
+                          EngineerIndex engineerIndex) {
+        this.meterRegistry = meterRegistry;
+        this.queryService = queryService;
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("intelliroute.assignment.phase")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .description("Time spent in one phase of an assignment cycle")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        Gauge.builder("intelliroute.queue.depth", pendingQueue, PendingQueue::size)
+                .tag("queue", "pending")
+                .description("Pending queries queued for dispatch on this node")
+                .register(meterRegistry);
+        Gauge.builder("intelliroute.queue.depth", escalatedQueries, AtomicLong::get)
+                .tag("queue", "escalated")
+                .description("Escalated queries waiting for an engineer")
+                .register(meterRegistry);
+        for (Designation designation : Designation.values()) {
+            Gauge.builder("intelliroute.engineers.free.capacity", engineerIndex,
+                            index -> index.freeCapacity(designation))
+                    .tag("designation", designation.name())
+                    .description("Unused capacity of available engineers")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("intelliroute.assignment.batch.score", this, metrics -> metrics.batchScore)
+                .description("Total placement score of the last batch matching solve")
+                .register(meterRegistry);
+        Gauge.builder("intelliroute.assignment.batch.gain", this, metrics -> metrics.batchGain)
+                .description("Score of the last batch matching solve above the greedy assigner's")
+                .register(meterRegistry);
+    }
+
+    // Counted in Mongo rather than tracked from events, so the gauge is right on every replica.
+    @Scheduled(fixedDelayString = "${assignment.metrics.refresh-ms:15000}")
+    public void refreshEscalatedCount() {
+        escalatedQueries.set(queryService.countByStatus(QueryStatus.ESCALATED));
+    }
+
+    public Cycle startCycle(String trigger) {
+        return new Cycle(trigger);
+    }
+
+    /**
+     * Times a reactive assignment cycle from subscription to termination. Phases overlap in the reactive
+     * pipeline, so only the cycle as a whole is recorded.
+     */
+    public <T> Mono<T> timeCycle(String trigger, Mono<T> cycle) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return cycle.doFinally(signal -> sample.stop(cycleTimer(trigger)));
+        });
+    }
+
+    /**
+     * Times in-process scoring by {@code source}; a {@code NaN} score is recorded as a fallback.
+     */
+    public double timeLocal(String source, DoubleSupplier scoring) {
+        long start = System.nanoTime();
+        double score = Double.NaN;
+        try {
+            score = scoring.getAsDouble();
+            return score;
+        } finally {
+            scoringTimer(source, Double.isNaN(score) ? "fallback" : "success")
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Times a scorer call from subscription to completion. An empty result means the scorer had no answer and
+     * the next one was asked.
+     */
+    public <T> Mono<T> timeScoring(String source, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> sample.stop(scoringTimer(source, result == null ? "fallback" : "success")))
+                    .doOnError(err -> sample.stop(scoringTimer(source, "error")));
+        });
+    }
+
+    /**
+     * Records one batch matching solve; the gain stays {@code NaN} unless the plan was compared with greedy.
+     */
+    public void batchPlan(BatchMatcher.Plan plan) {
+        Timer.builder("intelliroute.assignment.batch.solve")
+                .description("Time to solve one batch matching problem")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(plan.solveNanos(), TimeUnit.NANOSECONDS);
+        batchScore = plan.totalScore();
+        batchGain = plan.greedyScore() == null ? Double.NaN : plan.totalScore() - plan.greedyScore();
+    }
+
+    public void batchSize(String source, int queries) {
+        DistributionSummary.builder("intelliroute.scoring.batch.size")
+                .tag("source", source)
+                .description("Queries scored by one batch request")
+                .register(meterRegistry)
+                .record(queries);
+    }
+
+    public void escalated(String reason, int count) {
+        if (count > 0) {
+            Counter.builder("intelliroute.assignment.escalations")
+                    .tag("reason", reason)
+                    .description("Queries escalated")
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    public void rejected(String reason, int count) {
+        if (count > 0) {
+            Counter.builder("intelliroute.assignment.rejections")
+                    .tag("reason", reason)
+                    .description("Placements dropped because the engineer was full or the query already taken")
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private Timer cycleTimer(String trigger) {
+        return Timer.builder("intelliroute.assignment.cycle")
+                .tag("trigger", trigger)
+                .description("Duration of an assignment cycle")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer scoringTimer(String source, String outcome) {
+        return Timer.builder("intelliroute.scoring.latency")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .description("Complexity scoring latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accumulates phase times over one cycle and records them once it stops. Not thread-safe.
+     */
+    public final class Cycle {
+
+        private final String trigger;
+        private final long started = System.nanoTime();
+        private final long[] nanos = new long[Phase.values().length];
+
+        private Cycle(String trigger) {
+            this.trigger = trigger;
+        }
+
+        public <T> T time(Phase phase, Supplier<T> work) {
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                nanos[phase.ordinal()] += System.nanoTime() - start;
+            }
+        }
+
+        public void run(Phase phase, Runnable work) {
+            long start = System.nanoTime();
+            try {
+                work.run();
+            } finally {
+                nanos[phase.ordinal()] += System.nanoTime() - start;
+            }
+        }
+
+        public void stop() {
+            for (Phase phase : Phase.values()) {
+                phaseTimers.get(phase).record(nanos[phase.ordinal()], TimeUnit.NANOSECONDS);
+            }
+            cycleTimer(trigger).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
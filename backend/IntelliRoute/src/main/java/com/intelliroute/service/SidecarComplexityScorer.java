@@ -0,0 +1,128 @@
+package com.intelliroute.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Scores through the co-located {@code ai_service} ({@code /predict_complexity} and
+ * {@code /predict_complexity_batch}). Connections are pooled and kept alive; with {@code ai.sidecar.protocol}
+ * set to {@code h2c} requests are multiplexed over cleartext HTTP/2 instead, which the sidecar supports when
+ * served by Hypercorn. A score outside 1.0-5.0 counts as no answer.
+ */
+@Component
+public class SidecarComplexityScorer implements ComplexityScorer {
+
+    public static final String NAME = "sidecar";
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final Duration batchTimeout;
+    private final int batchSize;
+
+    public SidecarComplexityScorer(WebClient.Builder builder,
+                                   @Value("${ai.sidecar.url:http://localhost:8000}") String url,
+                                   @Value("${ai.sidecar.protocol:http11}") String protocol,
+                                   @Value("${ai.sidecar.max-connections:32}") int maxConnections,
+                                   @Value("${ai.sidecar.timeout-ms:500}") long timeoutMs,
+                                   @Value("${ai.sidecar.batch-timeout-ms:2000}") long batchTimeoutMs,
+                                   @Value("${ai.sidecar.batch-size:256}") int batchSize) {
+        this.connectionProvider = ConnectionProvider.builder("ai-sidecar")
+                .maxConnections(Math.max(1, maxConnections))
+                .pendingAcquireTimeout(Duration.ofMillis(timeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol("h2c".equals(protocol.toLowerCase(Locale.ROOT)) ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .keepAlive(true);
+        this.webClient = builder.clone()
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.batchTimeout = Duration.ofMillis(batchTimeoutMs);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean batches() {
+        return true;
+    }
+
+    @Override
+    public Mono<Double> predict(String description) {
+        return webClient.post()
+                .uri("/predict_complexity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", description == null ? "" : description))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .flatMap(body -> Mono.justOrEmpty(valid(body.path("complexity_score"))));
+    }
+
+    /**
+     * Sends the descriptions in requests of {@code ai.sidecar.batch-size}.
+     */
+    @Override
+    public Mono<List<Double>> predictBatch(List<String> descriptions) {
+        Double[] scores = new Double[descriptions.size()];
+        List<int[]> ranges = new ArrayList<>();
+        for (int from = 0; from < descriptions.size(); from += batchSize) {
+            ranges.add(new int[] {from, Math.min(from + batchSize, descriptions.size())});
+        }
+        return Flux.fromIterable(ranges)
+                .flatMap(range -> requestBatch(descriptions.subList(range[0], range[1]))
+                        .doOnNext(body -> {
+                            JsonNode answers = body.path("complexity_scores");
+                            for (int i = range[0]; i < range[1]; i++) {
+                                scores[i] = valid(answers.path(i - range[0]));
+                            }
+                        }))
+                .then(Mono.fromSupplier(() -> Arrays.asList(scores)));
+    }
+
+    private Mono<JsonNode> requestBatch(List<String> descriptions) {
+        return webClient.post()
+                .uri("/predict_complexity_batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("queries", descriptions.stream().map(d -> d == null ? "" : d).toList()))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(batchTimeout);
+    }
+
+    private static Double valid(JsonNode score) {
+        if (!score.isNumber()) {
+            return null;
+        }
+        double value = score.asDouble();
+        return value >= 1.0 && value <= 5.0 ? value : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.intelliroute.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide dictionary that interns skill and tag names to dense ids, and the {@code long[]} bitsets built
+ * over those ids. Skill overlap between an engineer and a query is then a popcount over the ANDed words, with
+ * no hashing or allocation per pair. Ids are local to the JVM and never persisted.
+ */
+public final class SkillBits {
+
+    public static final long[] EMPTY = new long[0];
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private SkillBits() {
+    }
+
+    /**
+     * Bitset of the given names, interning names seen for the first time.
+     */
+    public static long[] intern(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = EMPTY;
+        for (String name : names) {
+            if (name != null) {
+                bits = set(bits, IDS.computeIfAbsent(name, n -> NEXT_ID.getAndIncrement()));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Bitset of the given names without growing the dictionary: a name no engineer holds cannot match, so
+     * it is left out.
+     */
+    public static long[] lookup(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = EMPTY;
+        for (String name : names) {
+            Integer id = name == null ? null : IDS.get(name);
+            if (id != null) {
+                bits = set(bits, id);
+            }
+        }
+        return bits;
+    }
+
+    public static int overlap(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    public static int size() {
+        return NEXT_ID.get();
+    }
+
+    private static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        if (word >= bits.length) {
+            long[] grown = new long[word + 1];
+            System.arraycopy(bits, 0, grown, 0, bits.length);
+            bits = grown;
+        }
+        bits[word] |= 1L << id;
+        return bits;
+    }
+}
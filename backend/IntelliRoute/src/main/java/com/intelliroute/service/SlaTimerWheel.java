@@ -0,0 +1,219 @@
+package com.intelliroute.service;
+
+import com.intelliroute.event.QueryCreatedEvent;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hashed timing wheel that escalates pending queries the moment their SLA expires. Timers are armed when a
+ * query is created or saved with an SLA, re-armed when it returns to pending, and cancelled as soon as it
+ * leaves the pending state. Scheduling and cancelling are O(1); a single daemon thread advances the wheel
+ * every {@code assignment.sla.tick-ms} and escalates the expired queries.
+ */
+@Component
+@Slf4j
+public class SlaTimerWheel {
+
+    private final QueryService queryService;
+    private final RoutingMetrics routingMetrics;
+    private final boolean enabled;
+    private final long tickNanos;
+    private final int mask;
+    private final List<Queue<Timer>> buckets;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Queue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+    private Thread worker;
+    private long startNanos;
+    private long tick;
+
+    public SlaTimerWheel(QueryService queryService,
+                         RoutingMetrics routingMetrics,
+                         @Value("${assignment.sla.wheel-enabled:true}") boolean enabled,
+                         @Value("${assignment.sla.tick-ms:100}") long tickMs,
+                         @Value("${assignment.sla.wheel-size:1024}") int wheelSize) {
+        this.queryService = queryService;
+        this.routingMetrics = routingMetrics;
+        this.enabled = enabled;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Arms a timer for every pending query with an SLA, so deadlines survive restarts; already breached
+     * queries are escalated on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        running = true;
+        List<SupportQuery> pending = queryService.findPendingWithSla();
+        pending.forEach(this::schedule);
+        worker = new Thread(this::run, "sla-timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("SLA timer wheel started with {} timers", pending.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @EventListener
+    public void onQueryCreated(QueryCreatedEvent event) {
+        schedule(event.query());
+    }
+
+    @EventListener
+    public void onStatusChanged(QueryStatusChangedEvent event) {
+        SupportQuery query = event.query();
+        if (query.getStatus() == QueryStatus.PENDING) {
+            schedule(query);
+        } else {
+            cancel(query.getId());
+        }
+    }
+
+    /**
+     * Arms (or re-arms, if the SLA changed) the escalation timer of a pending query.
+     */
+    public void schedule(SupportQuery query) {
+        if (!running || query == null || query.getId() == null || query.getSlaDueAt() == null
+                || query.getStatus() != QueryStatus.PENDING) {
+            return;
+        }
+        Timer existing = timers.get(query.getId());
+        if (existing != null && !existing.cancelled && existing.slaDueAt.equals(query.getSlaDueAt())) {
+            return;
+        }
+        long delay = Duration.between(LocalDateTime.now(), query.getSlaDueAt()).toNanos();
+        Timer timer = new Timer(query, query.getSlaDueAt(), System.nanoTime() + Math.max(0, delay) - startNanos);
+        Timer replaced = timers.put(query.getId(), timer);
+        if (replaced != null) {
+            replaced.cancelled = true;
+        }
+        scheduled.add(timer);
+    }
+
+    public void cancel(String queryId) {
+        Timer timer = timers.remove(queryId);
+        if (timer != null) {
+            timer.cancelled = true;
+        }
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                continue;
+            }
+            transferScheduled();
+            List<Timer> expired = expire(buckets.get((int) (tick & mask)));
+            tick++;
+            for (Timer timer : expired) {
+                escalate(timer);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timer timer;
+        while ((timer = scheduled.poll()) != null) {
+            if (timer.cancelled) {
+                continue;
+            }
+            long due = Math.max(timer.deadlineNanos / tickNanos, tick);
+            timer.rounds = (due - tick) / buckets.size();
+            buckets.get((int) (due & mask)).add(timer);
+        }
+    }
+
+    private List<Timer> expire(Queue<Timer> bucket) {
+        List<Timer> expired = new ArrayList<>();
+        Iterator<Timer> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timer timer = it.next();
+            if (timer.cancelled) {
+                it.remove();
+            } else if (timer.rounds <= 0) {
+                it.remove();
+                expired.add(timer);
+            } else {
+                timer.rounds--;
+            }
+        }
+        return expired;
+    }
+
+    private void escalate(Timer timer) {
+        String queryId = timer.query.getId();
+        if (!timers.remove(queryId, timer)) {
+            return;
+        }
+        try {
+            if (queryService.escalate(timer.query).isPresent()) {
+                routingMetrics.escalated(RoutingMetrics.SLA, 1);
+                log.warn("Query {} breached SLA and has been escalated", queryId);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("SLA escalation of query {} failed; the reconciliation pass will retry: {}",
+                    queryId, ex.getMessage());
+        }
+    }
+
+    private static final class Timer {
+        private final SupportQuery query;
+        private final LocalDateTime slaDueAt;
+        private final long deadlineNanos;
+        private long rounds;
+        private volatile boolean cancelled;
+
+        private Timer(SupportQuery query, LocalDateTime slaDueAt, long deadlineNanos) {
+            this.query = query;
+            this.slaDueAt = slaDueAt;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.SupportQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BatchMatcherTest {
+
+    private static final double EPSILON = 0.25;
+
+    private BatchMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new BatchMatcher(new EngineerScorer());
+        ReflectionTestUtils.setField(matcher, "epsilon", EPSILON);
+        ReflectionTestUtils.setField(matcher, "compareGreedy", true);
+    }
+
+    @Test
+    void emptyInputPlacesNothing() {
+        BatchMatcher.Plan noQueries = matcher.solve(List.of(), List.of(engineer("e1", Designation.MID, 2)));
+        BatchMatcher.Plan noEngineers = matcher.solve(List.of(query("q1", 2.5, Priority.P3)), List.of());
+
+        assertThat(noQueries.placements()).isEmpty();
+        assertThat(noQueries.totalScore()).isZero();
+        assertThat(noEngineers.placements()).isEmpty();
+    }
+
+    @Test
+    void neverPlacesMoreQueriesThanFreeCapacity() {
+        Engineer busy = engineer("e1", Designation.MID, 3);
+        busy.setCurrentLoad(1);
+        List<SupportQuery> queries = List.of(
+                query("q1", 2.5, Priority.P1), query("q2", 2.5, Priority.P2), query("q3", 2.5, Priority.P3));
+
+        BatchMatcher.Plan plan = matcher.solve(queries, List.of(busy));
+
+        assertThat(plan.placements()).hasSize(2).containsValues("e1");
+    }
+
+    @Test
+    void prefersEngineerWithMatchingSkill() {
+        SupportQuery query = query("q1", 2.5, Priority.P3);
+        query.setTags(List.of("mongo"));
+        Engineer plain = engineer("plain", Designation.MID, 1);
+        Engineer skilled = engineer("skilled", Designation.MID, 1);
+        skilled.setSkills(Set.of("mongo"));
+
+        BatchMatcher.Plan plan = matcher.solve(List.of(query), List.of(plain, skilled));
+
+        assertThat(plan.placements()).containsEntry("q1", "skilled");
+    }
+
+    @Test
+    void tiedEngineersEachTakeOneQuery() {
+        List<SupportQuery> queries = List.of(query("q1", 2.5, Priority.P3), query("q2", 2.5, Priority.P3));
+        List<Engineer> engineers = List.of(engineer("a", Designation.MID, 1), engineer("b", Designation.MID, 1));
+
+        BatchMatcher.Plan first = matcher.solve(queries, engineers);
+        BatchMatcher.Plan second = matcher.solve(queries, engineers);
+
+        assertThat(first.placements().values()).containsExactlyInAnyOrder("a", "b");
+        assertThat(second.placements()).isEqualTo(first.placements());
+    }
+
+    @Test
+    void staysWithinEpsilonOfGreedyOnRandomPools() {
+        Random random = new Random(7);
+        Designation[] designations = Designation.values();
+        Priority[] priorities = Priority.values();
+        List<String> skills = List.of("java", "mongo", "k8s", "payments", "search", "billing");
+        for (int round = 0; round < 50; round++) {
+            List<Engineer> engineers = new ArrayList<>();
+            for (int e = 0; e < 1 + random.nextInt(20); e++) {
+                Engineer engineer = engineer("e" + e, designations[random.nextInt(designations.length)],
+                        1 + random.nextInt(4));
+                engineer.setSkills(new HashSet<>(List.of(skills.get(random.nextInt(skills.size())),
+                        skills.get(random.nextInt(skills.size())))));
+                engineers.add(engineer);
+            }
+            List<SupportQuery> queries = new ArrayList<>();
+            for (int q = 0; q < random.nextInt(40); q++) {
+                SupportQuery query = query("q" + q, 1.0 + random.nextInt(40) / 10.0,
+                        priorities[random.nextInt(priorities.length)]);
+                query.setTags(List.of(skills.get(random.nextInt(skills.size()))));
+                queries.add(query);
+            }
+
+            BatchMatcher.Plan plan = matcher.solve(queries, engineers);
+
+            assertThat(plan.totalScore()).isGreaterThanOrEqualTo(plan.greedyScore() - EPSILON * queries.size());
+            assertWithinCapacity(plan.placements(), engineers);
+        }
+    }
+
+    private static void assertWithinCapacity(Map<String, String> placements, Collection<Engineer> engineers) {
+        Map<String, Integer> placed = new HashMap<>();
+        placements.values().forEach(id -> placed.merge(id, 1, Integer::sum));
+        for (Engineer engineer : engineers) {
+            assertThat(placed.getOrDefault(engineer.getId(), 0))
+                    .isLessThanOrEqualTo(engineer.getCapacity() - engineer.getCurrentLoad());
+        }
+    }
+
+    private static Engineer engineer(String id, Designation designation, int capacity) {
+        return Engineer.builder().id(id).designation(designation).capacity(capacity).build();
+    }
+
+    private static SupportQuery query(String id, double complexity, Priority priority) {
+        return SupportQuery.builder().id(id).description(id).complexityScore(complexity).priority(priority).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.intelliroute.dto.CursorPage;
+import com.intelliroute.dto.ListParams;
+import com.intelliroute.model.SupportQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class CursorPagerTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final CursorPager pager;
+
+    CursorPagerTest() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        pager = new CursorPager(mongoTemplate, new ObjectMapper().findAndRegisterModules(), 3, 10);
+    }
+
+    @Test
+    void firstPageFetchesOneExtraDocumentInIdOrder() {
+        Query query = pager.pageQuery(new Criteria(), new ListParams());
+
+        assertThat(query.getLimit()).isEqualTo(4);
+        assertThat(query.getSortObject()).isEqualTo(new Document("id", 1));
+        assertThat(query.getQueryObject()).isEmpty();
+    }
+
+    @Test
+    void cursorContinuesAfterTheLastIdInEitherDirection() {
+        ObjectId last = new ObjectId();
+        ListParams params = new ListParams();
+        params.setCursor(last.toHexString());
+
+        assertThat(pager.pageQuery(new Criteria(), params).getQueryObject().get("id", Document.class))
+                .isEqualTo(new Document("$gt", last));
+
+        params.setDirection(Sort.Direction.DESC);
+        Query descending = pager.pageQuery(new Criteria(), params);
+        assertThat(descending.getQueryObject().get("id", Document.class)).isEqualTo(new Document("$lt", last));
+        assertThat(descending.getSortObject()).isEqualTo(new Document("id", -1));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        ListParams params = new ListParams();
+        params.setCursor("not-an-object-id");
+
+        assertThatThrownBy(() -> pager.pageQuery(new Criteria(), params))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void limitDefaultsAndIsCappedAtTheMaximum() {
+        ListParams params = new ListParams();
+        assertThat(pager.limit(params)).isEqualTo(3);
+
+        params.setLimit(7);
+        assertThat(pager.limit(params)).isEqualTo(7);
+
+        params.setLimit(50);
+        assertThat(pager.limit(params)).isEqualTo(10);
+    }
+
+    @Test
+    void nextCursorIsTheLastIdOfAFullPage() {
+        List<SupportQuery> found = queries(4);
+
+        CursorPage<Object> page = pager.toPage(found, 3, Set.of());
+
+        assertThat(page.items()).containsExactlyElementsOf(found.subList(0, 3));
+        assertThat(page.nextCursor()).isEqualTo(found.get(2).getId());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        assertThat(pager.toPage(queries(3), 3, Set.of()).nextCursor()).isNull();
+
+        CursorPage<Object> empty = pager.toPage(List.of(), 3, Set.of());
+        assertThat(empty.items()).isEmpty();
+        assertThat(empty.nextCursor()).isNull();
+    }
+
+    @Test
+    void projectionKeepsTheIdAndRejectsUnknownFields() {
+        Query query = new Query();
+        Set<String> fields = pager.project(SupportQuery.class, query, Set.of("status"));
+
+        assertThat(fields).containsExactlyInAnyOrder("id", "status");
+        ObjectNode shaped = (ObjectNode) pager.toPage(queries(1), 3, fields).items().get(0);
+        assertThat(shaped.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "status");
+
+        assertThatThrownBy(() -> pager.project(SupportQuery.class, new Query(), Set.of("nope")))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void dateRangeIsHalfOpen() {
+        ListParams params = new ListParams();
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        params.setFrom(from);
+        params.setTo(to);
+
+        Document filter = new Query(pager.criteria(List.of(), "createdAt", params)).getQueryObject();
+
+        assertThat(filter.getList("$and", Document.class))
+                .containsExactly(new Document("createdAt", new Document("$gte", from).append("$lt", to)));
+        assertThat(new Query(pager.criteria(List.of(), "createdAt", new ListParams())).getQueryObject()).isEmpty();
+    }
+
+    private static List<SupportQuery> queries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> SupportQuery.builder().id(new ObjectId().toHexString()).description("q" + i).build())
+                .toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void findsOverlappingKeywords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of(
+                List.of("he"), List.of("she"), List.of("his"), List.of("hers")));
+
+        assertThat(automaton.match("ushers")).isEqualTo(0b1011L);
+        assertThat(automaton.match("this")).isEqualTo(0b0100L);
+        assertThat(automaton.match("hhhe")).isEqualTo(0b0001L);
+    }
+
+    @Test
+    void followsFailureLinksAcrossPartialMatches() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of(List.of("aab"), List.of("abc")));
+
+        assertThat(automaton.match("aaab")).isEqualTo(0b01L);
+        assertThat(automaton.match("aabc")).isEqualTo(0b11L);
+        assertThat(automaton.match("aaba")).isEqualTo(0b01L);
+    }
+
+    @Test
+    void matchesCaseInsensitively() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of(List.of("Outage", "data loss")));
+
+        assertThat(automaton.match("PRODUCTION OUTAGE since 9am")).isEqualTo(1L);
+        assertThat(automaton.match("possible Data Loss")).isEqualTo(1L);
+        assertThat(automaton.match("out of stock")).isZero();
+    }
+
+    @Test
+    void matchesNonAsciiKeywords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of(List.of("café"), List.of("über")));
+
+        assertThat(automaton.match("Le CAFÉ est fermé")).isEqualTo(0b01L);
+        assertThat(automaton.match("Über alles")).isEqualTo(0b10L);
+        assertThat(automaton.match("cafe uber")).isZero();
+    }
+
+    @Test
+    void matchesNothingWithoutKeywords() {
+        assertThat(new KeywordAutomaton(List.of()).match("anything")).isZero();
+        assertThat(new KeywordAutomaton(List.of(List.of("", "  "), List.of())).match("anything")).isZero();
+        assertThat(new KeywordAutomaton(List.of(List.of("bug"))).match("")).isZero();
+    }
+
+    @Test
+    void supportsUpToSixtyFourRules() {
+        List<List<String>> rules = IntStream.range(0, KeywordAutomaton.MAX_RULES)
+                .mapToObj(i -> List.of("kw" + i + "x"))
+                .toList();
+
+        assertThat(new KeywordAutomaton(rules).match("see kw63x and kw0x")).isEqualTo(Long.MIN_VALUE | 1L);
+
+        List<List<String>> tooMany = new ArrayList<>(rules);
+        tooMany.add(List.of("one more"));
+        assertThatThrownBy(() -> new KeywordAutomaton(tooMany)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void agreesWithSubstringSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<List<String>> rules = new ArrayList<>();
+            for (int rule = 0, n = 1 + random.nextInt(8); rule < n; rule++) {
+                rules.add(List.of(word(random, "abc", 1 + random.nextInt(4)),
+                        word(random, "abc", 1 + random.nextInt(4))));
+            }
+            String text = word(random, "abcABC", random.nextInt(40));
+
+            long expected = 0;
+            for (int rule = 0; rule < rules.size(); rule++) {
+                if (rules.get(rule).stream().anyMatch(k -> text.toLowerCase(Locale.ROOT).contains(k))) {
+                    expected |= 1L << rule;
+                }
+            }
+            assertThat(new KeywordAutomaton(rules).match(text)).as("%s in %s", rules, text).isEqualTo(expected);
+        }
+    }
+
+    // Drawn from a small alphabet, so keywords overlap often.
+    private static String word(Random random, String alphabet, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+}
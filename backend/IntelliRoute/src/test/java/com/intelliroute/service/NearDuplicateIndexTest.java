@@ -0,0 +1,120 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.intelliroute.model.SupportQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class NearDuplicateIndexTest {
+
+    private static final String CHECKOUT = "Checkout page throws a null pointer when the cart holds a gift card";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void linksRepeatsToTheFirstSavedQuery() {
+        NearDuplicateIndex index = index(0.8, 16, 8, 3_600_000, 100);
+        SupportQuery first = query("first", CHECKOUT);
+        assertThat(index.canonicalOf(first)).isEmpty();
+        index.register(first);
+
+        SupportQuery repeat = query("repeat", "CHECKOUT page throws a null-pointer, when the cart holds a gift card!");
+        assertThat(index.canonicalOf(repeat)).contains("first");
+
+        repeat.setDuplicateOf("first");
+        index.register(repeat);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(meterRegistry.counter("intelliroute.queries.duplicates").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void lookupAloneDoesNotIndex() {
+        NearDuplicateIndex index = index(0.8, 16, 8, 3_600_000, 100);
+
+        assertThat(index.canonicalOf(query("unsaved", CHECKOUT))).isEmpty();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.canonicalOf(query("next", CHECKOUT))).isEmpty();
+    }
+
+    @Test
+    void keepsDissimilarQueriesApart() {
+        NearDuplicateIndex index = index(0.8, 16, 8, 3_600_000, 100);
+        index.register(query("first", CHECKOUT));
+
+        assertThat(index.canonicalOf(query("other", "Password reset email never arrives for SSO users"))).isEmpty();
+    }
+
+    @Test
+    void matchesExactlyAtTheThreshold() {
+        // One row per band, so every shared hash makes a candidate and only the threshold decides.
+        NearDuplicateIndex probe = index(0.5, 128, 1, 3_600_000, 100);
+        String near = CHECKOUT.replace("gift card", "voucher code");
+        int shared = shared(probe.signature(CHECKOUT), probe.signature(near));
+        assertThat(shared).isBetween(1, 127);
+
+        NearDuplicateIndex atThreshold = index(shared / 128.0, 128, 1, 3_600_000, 100);
+        atThreshold.register(query("first", CHECKOUT));
+        assertThat(atThreshold.canonicalOf(query("near", near))).contains("first");
+
+        NearDuplicateIndex aboveThreshold = index((shared + 1) / 128.0, 128, 1, 3_600_000, 100);
+        aboveThreshold.register(query("first", CHECKOUT));
+        assertThat(aboveThreshold.canonicalOf(query("near", near))).isEmpty();
+    }
+
+    @Test
+    void evictsTheOldestBeyondMaxEntries() {
+        NearDuplicateIndex index = index(0.8, 16, 8, 3_600_000, 2);
+        index.register(query("a", CHECKOUT));
+        index.register(query("b", "Password reset email never arrives for SSO users"));
+        index.register(query("c", "Dashboard chart colours are wrong in dark mode"));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.canonicalOf(query("again", CHECKOUT))).isEmpty();
+    }
+
+    @Test
+    void forgetsQueriesOutsideTheWindow() throws InterruptedException {
+        NearDuplicateIndex index = index(0.8, 16, 8, 1, 100);
+        index.register(query("old", CHECKOUT));
+        Thread.sleep(10);
+
+        assertThat(index.canonicalOf(query("new", CHECKOUT))).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void ignoresDescriptionsWithoutWordsOrWhenDisabled() {
+        NearDuplicateIndex index = index(0.8, 16, 8, 3_600_000, 100);
+        index.register(query("blank", " ?! "));
+        assertThat(index.signature(" ?! ")).isNull();
+        assertThat(index.size()).isZero();
+
+        NearDuplicateIndex disabled = new NearDuplicateIndex(mock(MongoTemplate.class), meterRegistry, false,
+                0.8, 16, 8, 5, 3_600_000, 100);
+        disabled.register(query("first", CHECKOUT));
+        assertThat(disabled.canonicalOf(query("repeat", CHECKOUT))).isEmpty();
+    }
+
+    private NearDuplicateIndex index(double threshold, int bands, int rows, long windowMs, int maxEntries) {
+        return new NearDuplicateIndex(mock(MongoTemplate.class), meterRegistry, true, threshold, bands, rows, 5,
+                windowMs, maxEntries);
+    }
+
+    private static SupportQuery query(String id, String description) {
+        return SupportQuery.builder().id(id).description(description).build();
+    }
+
+    private static int shared(int[] a, int[] b) {
+        int shared = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+}
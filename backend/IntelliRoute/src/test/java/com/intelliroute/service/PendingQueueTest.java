@@ -0,0 +1,125 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PendingQueueTest {
+
+    private static final long AGING_MS = 600_000;
+
+    private final QueryService queryService = mock(QueryService.class);
+    private final PartitionCoordinator partitionCoordinator = mock(PartitionCoordinator.class);
+    private PendingQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(partitionCoordinator.owns(any(SupportQuery.class))).thenReturn(true);
+        queue = new PendingQueue(queryService, partitionCoordinator, AGING_MS);
+    }
+
+    @Test
+    void drainsEmptyQueue() {
+        assertThat(queue.drain()).isEmpty();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void ordersByPriorityClassThenEarliestDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        queue.add(query("p3", Priority.P3, now, now.plusMinutes(1)));
+        queue.add(query("p1-late", Priority.P1, now, now.plusHours(2)));
+        queue.add(query("p1-none", Priority.P1, now, null));
+        queue.add(query("p1-soon", Priority.P1, now, now.plusMinutes(5)));
+        queue.add(query("p2", Priority.P2, now, null));
+
+        assertThat(ids(queue.drain())).containsExactly("p1-soon", "p1-late", "p1-none", "p2", "p3");
+    }
+
+    @Test
+    void breaksDeadlineTiesByArrival() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime due = now.plusMinutes(30);
+        queue.add(query("second", Priority.P2, now.minusSeconds(10), due));
+        queue.add(query("first", Priority.P2, now.minusSeconds(20), due));
+        queue.add(query("third", Priority.P2, now.minusSeconds(10), due));
+
+        assertThat(ids(queue.drain())).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void promotesOneClassPerAgingInterval() {
+        LocalDateTime now = LocalDateTime.now();
+        queue.add(query("fresh-p2", Priority.P2, now, null));
+        queue.add(query("aged-p3", Priority.P3, now.minusMinutes(11), now.plusMinutes(1)));
+        queue.add(query("old-p3", Priority.P3, now.minusMinutes(25), null));
+
+        // aged-p3 has waited one interval and now competes as a P2, old-p3 two and competes as a P1.
+        assertThat(ids(queue.drain())).containsExactly("old-p3", "aged-p3", "fresh-p2");
+    }
+
+    @Test
+    void ignoresDuplicatesAndNonPendingQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        queue.add(query("a", Priority.P2, now, null));
+        queue.add(query("a", Priority.P2, now, null));
+        SupportQuery assigned = query("b", Priority.P1, now, null);
+        assigned.setStatus(QueryStatus.ASSIGNED);
+        queue.add(assigned);
+
+        assertThat(ids(queue.drain())).containsExactly("a");
+    }
+
+    @Test
+    void reconcileSkipsQueriesInFlight() {
+        LocalDateTime now = LocalDateTime.now();
+        SupportQuery inFlight = query("in-flight", Priority.P1, now, null);
+        queue.add(inFlight);
+        List<SupportQuery> drained = queue.drain();
+        SupportQuery missed = query("missed", Priority.P2, now, null);
+        when(queryService.findPending()).thenReturn(List.of(query("in-flight", Priority.P1, now, null), missed));
+
+        queue.reconcile();
+        queue.add(query("in-flight", Priority.P1, now, null));
+
+        assertThat(ids(queue.drain())).containsExactly("missed");
+        assertThat(drained).containsExactly(inFlight);
+    }
+
+    @Test
+    void requeueReturnsOnlyStillPendingQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        queue.add(query("lost-race", Priority.P1, now, null));
+        queue.add(query("placed", Priority.P1, now, null));
+        List<SupportQuery> drained = queue.drain();
+        drained.get(1).setStatus(QueryStatus.ASSIGNED);
+
+        queue.requeue(drained);
+        queue.add(query("placed", Priority.P1, now, null));
+
+        assertThat(ids(queue.drain())).containsExactlyInAnyOrder("lost-race", "placed");
+    }
+
+    private static SupportQuery query(String id, Priority priority, LocalDateTime createdAt, LocalDateTime slaDueAt) {
+        return SupportQuery.builder()
+                .id(id)
+                .description(id)
+                .priority(priority)
+                .createdAt(createdAt)
+                .slaDueAt(slaDueAt)
+                .build();
+    }
+
+    private static List<String> ids(List<SupportQuery> queries) {
+        return queries.stream().map(SupportQuery::getId).toList();
+    }
+}
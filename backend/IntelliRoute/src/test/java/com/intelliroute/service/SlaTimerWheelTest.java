@@ -0,0 +1,110 @@
+package com.intelliroute.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.model.SupportQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SlaTimerWheelTest {
+
+    // A 4-slot wheel of 5ms ticks spans 20ms, so longer deadlines go around the wheel several times.
+    private static final long TICK_MS = 5;
+    private static final int WHEEL_SIZE = 4;
+
+    private final QueryService queryService = mock(QueryService.class);
+    private final RoutingMetrics routingMetrics = mock(RoutingMetrics.class);
+    private SlaTimerWheel wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void escalatesBreachedQueriesFoundAtStartup() {
+        SupportQuery breached = query("breached", LocalDateTime.now().minusMinutes(5));
+        when(queryService.findPendingWithSla()).thenReturn(List.of(breached));
+        when(queryService.escalate(breached)).thenReturn(Optional.of(breached));
+
+        start(true);
+
+        verify(queryService, timeout(1000)).escalate(breached);
+        verify(routingMetrics, timeout(1000)).escalated(RoutingMetrics.SLA, 1);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesAfterWrappingAroundTheWheel() {
+        start(true);
+        SupportQuery query = query("later", LocalDateTime.now().plusNanos(200_000_000));
+
+        wheel.schedule(query);
+
+        verify(queryService, after(100).never()).escalate(any());
+        verify(queryService, timeout(2000)).escalate(query);
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        start(true);
+        SupportQuery query = query("assigned", LocalDateTime.now().plusNanos(30_000_000));
+        wheel.schedule(query);
+
+        query.setStatus(QueryStatus.ASSIGNED);
+        wheel.onStatusChanged(new QueryStatusChangedEvent(query));
+
+        verify(queryService, after(200).never()).escalate(any());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void reschedulingWithNewSlaReplacesTheTimer() {
+        start(true);
+        SupportQuery query = query("moved", LocalDateTime.now().plusNanos(30_000_000));
+        wheel.schedule(query);
+        SupportQuery extended = query("moved", LocalDateTime.now().plusNanos(300_000_000));
+
+        wheel.schedule(extended);
+
+        verify(queryService, after(150).never()).escalate(any());
+        verify(queryService, timeout(2000)).escalate(extended);
+        verify(queryService, after(100).times(1)).escalate(any());
+    }
+
+    @Test
+    void ignoresQueriesWithoutSlaOrWhenDisabled() {
+        start(true);
+        wheel.schedule(query("no-sla", null));
+        assertThat(wheel.size()).isZero();
+
+        wheel.stop();
+        start(false);
+        wheel.schedule(query("disabled", LocalDateTime.now()));
+        assertThat(wheel.size()).isZero();
+    }
+
+    private void start(boolean enabled) {
+        wheel = new SlaTimerWheel(queryService, routingMetrics, enabled, TICK_MS, WHEEL_SIZE);
+        wheel.start();
+    }
+
+    private static SupportQuery query(String id, LocalDateTime slaDueAt) {
+        return SupportQuery.builder().id(id).description(id).slaDueAt(slaDueAt).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.intelliroute.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, e.g. the committed {@code baseline/baseline.json} and a fresh run:
+ * <pre>
+ * java -cp target/benchmarks.jar com.intelliroute.benchmarks.BaselineComparator \
+ *     baseline/baseline.json result.json
+ * </pre>
+ * Prints throughput and allocation per operation side by side, with the relative change.
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(args[0]);
+        Map<String, JsonNode> current = load(args[1]);
+
+        System.out.printf("%-60s %14s %14s %8s %12s %12s%n",
+                "benchmark", "baseline", "current", "change", "B/op before", "B/op after");
+        current.forEach((key, run) -> {
+            JsonNode before = baseline.get(key);
+            double score = run.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.1f %8s %12s %12.1f%n",
+                        key, "-", score, "new", "-", allocation(run));
+                return;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            System.out.printf("%-60s %14.1f %14.1f %+7.1f%% %12.1f %12.1f%n",
+                    key, previous, score, (score - previous) / previous * 100.0, allocation(before), allocation(run));
+        });
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-60s %14s%n", key, "removed"));
+    }
+
+    private static Map<String, JsonNode> load(String path) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.intelliroute.benchmarks.", ""));
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            runs.put(key.toString(), run);
+        }
+        return runs;
+    }
+
+    private static double allocation(JsonNode run) {
+        return run.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+    }
+}
@@ -0,0 +1,70 @@
+package com.intelliroute.benchmarks;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.service.EngineerScorer;
+import com.intelliroute.service.SkillBits;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of scoring one engineer against one query, cycling through pairs so the branch mix stays realistic.
+ * Skills and tags are interned up front, as EngineerIndex and EngineerSelector do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EngineerScorerBenchmark {
+
+    private static final int PAIRS = 4096;
+
+    private final EngineerScorer scorer = new EngineerScorer();
+    private Engineer[] engineers;
+    private long[][] tags;
+    private Designation[] targets;
+    private Priority[] priorities;
+    private double[] complexities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(42);
+        List<Engineer> pool = workload.engineers(PAIRS);
+        List<SupportQuery> queries = workload.queries(PAIRS);
+        engineers = pool.stream()
+                .map(e -> e.toBuilder().skillBits(SkillBits.intern(e.getSkills())).build())
+                .toArray(Engineer[]::new);
+        tags = new long[PAIRS][];
+        targets = new Designation[PAIRS];
+        priorities = new Priority[PAIRS];
+        complexities = new double[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            SupportQuery query = queries.get(i);
+            tags[i] = SkillBits.lookup(query.getTags());
+            targets[i] = scorer.targetDesignation(query.getComplexityScore());
+            priorities[i] = query.getPriority();
+            complexities[i] = query.getComplexityScore();
+        }
+    }
+
+    @Benchmark
+    public double score() {
+        int i = next++ & (PAIRS - 1);
+        return scorer.score(engineers[i], targets[i], tags[i], priorities[i], complexities[i]);
+    }
+}
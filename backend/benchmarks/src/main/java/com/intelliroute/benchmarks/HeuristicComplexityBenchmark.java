@@ -0,0 +1,46 @@
+package com.intelliroute.benchmarks;
+
+import com.intelliroute.service.HeuristicComplexityScorer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heuristic complexity scoring over descriptions of mixed length and keyword density.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeuristicComplexityBenchmark {
+
+    private static final int DESCRIPTIONS = 4096;
+
+    private final HeuristicComplexityScorer scorer = new HeuristicComplexityScorer();
+    private String[] descriptions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(42);
+        descriptions = new String[DESCRIPTIONS];
+        for (int i = 0; i < DESCRIPTIONS; i++) {
+            descriptions[i] = workload.description();
+        }
+    }
+
+    @Benchmark
+    public double score() {
+        return scorer.score(descriptions[next++ & (DESCRIPTIONS - 1)]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.intelliroute.benchmarks;
+
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.SupportQuery;
+import com.intelliroute.service.EngineerIndex;
+import com.intelliroute.service.EngineerScorer;
+import com.intelliroute.service.EngineerSelector;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Greedy selection for one query over engineer pools of increasing size, and the index update that follows
+ * every placement. The index is filled directly, so no Mongo is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SelectEngineerBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int engineers;
+
+    private EngineerIndex index;
+    private EngineerSelector selector;
+    private SupportQuery[] queries;
+    private Engineer[] pool;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(42);
+        List<Engineer> generated = workload.engineers(engineers);
+        index = new EngineerIndex(null, event -> { });
+        generated.forEach(index::upsert);
+        selector = new EngineerSelector(index, new EngineerScorer());
+        queries = workload.queries(QUERIES).toArray(SupportQuery[]::new);
+        pool = generated.toArray(Engineer[]::new);
+    }
+
+    @Benchmark
+    public Optional<Engineer> select() {
+        return selector.select(queries[next++ & (QUERIES - 1)]);
+    }
+
+    /**
+     * Takes one unit of capacity from an engineer and gives it back, as a placement and a completion do.
+     */
+    @Benchmark
+    public Engineer reserveAndRelease() {
+        Engineer engineer = pool[next++ % pool.length];
+        index.upsert(engineer.toBuilder().currentLoad(engineer.getCurrentLoad() + 1).build());
+        index.upsert(engineer);
+        return engineer;
+    }
+}
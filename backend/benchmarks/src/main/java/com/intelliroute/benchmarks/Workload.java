@@ -0,0 +1,134 @@
+package com.intelliroute.benchmarks;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Engineer;
+import com.intelliroute.model.Priority;
+import com.intelliroute.model.SupportQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic data. Skills and tags follow a Zipf distribution over a fixed vocabulary, so a few
+ * skills are held by many engineers and most by few, as in a real support organisation.
+ */
+final class Workload {
+
+    private static final String[] COMMON_SKILLS = {
+            "java", "spring", "mongodb", "kubernetes", "react", "typescript", "python", "aws", "postgres",
+            "kafka", "networking", "security", "billing", "auth", "payments", "search", "mobile", "ios",
+            "android", "terraform", "observability", "redis", "graphql", "docker", "linux"
+    };
+    private static final int SKILL_COUNT = 200;
+    private static final double SKILL_SKEW = 1.1;
+
+    private static final String[] WORDS = {
+            "the", "service", "request", "returns", "error", "when", "user", "tries", "to", "login", "page",
+            "after", "deploy", "timeout", "database", "connection", "customer", "reports", "invoice", "missing",
+            "slow", "dashboard", "intermittent", "failure", "queue", "message", "retry", "cache", "config"
+    };
+    private static final String[] KEYWORDS = {
+            "outage", "critical", "latency", "security", "data loss", "p1", "architecture", "refactor",
+            "simple", "typo"
+    };
+
+    private final Random random;
+    private final String[] skills;
+    private final double[] skillCdf;
+
+    Workload(long seed) {
+        this.random = new Random(seed);
+        this.skills = new String[SKILL_COUNT];
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            skills[i] = i < COMMON_SKILLS.length ? COMMON_SKILLS[i] : "skill-" + i;
+        }
+        this.skillCdf = new double[SKILL_COUNT];
+        double total = 0;
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            total += 1.0 / Math.pow(i + 1, SKILL_SKEW);
+            skillCdf[i] = total;
+        }
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            skillCdf[i] /= total;
+        }
+    }
+
+    List<Engineer> engineers(int count) {
+        List<Engineer> engineers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int capacity = 2 + random.nextInt(7);
+            // About a fifth of the pool is fully loaded.
+            int load = random.nextDouble() < 0.2 ? capacity : random.nextInt(capacity);
+            engineers.add(Engineer.builder()
+                    .id(String.format("e%07d", i))
+                    .name("engineer-" + i)
+                    .designation(designation())
+                    .capacity(capacity)
+                    .currentLoad(load)
+                    .skills(skills(2 + random.nextInt(5)))
+                    .build());
+        }
+        return engineers;
+    }
+
+    List<SupportQuery> queries(int count) {
+        List<SupportQuery> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            queries.add(SupportQuery.builder()
+                    .id(String.format("q%07d", i))
+                    .description(description())
+                    .priority(priority())
+                    .tags(List.copyOf(skills(1 + random.nextInt(3))))
+                    .complexityScore(Math.round((1.0 + random.nextDouble() * 4.0) * 100.0) / 100.0)
+                    .build());
+        }
+        return queries;
+    }
+
+    String description() {
+        // Log-uniform length between roughly 40 and 1200 characters.
+        int target = (int) Math.exp(Math.log(40) + random.nextDouble() * (Math.log(1200) - Math.log(40)));
+        StringBuilder text = new StringBuilder(target + 16);
+        while (text.length() < target) {
+            if (random.nextDouble() < 0.03) {
+                text.append(KEYWORDS[random.nextInt(KEYWORDS.length)]);
+            } else {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                text.append(random.nextDouble() < 0.1 ? word.toUpperCase() : word);
+            }
+            text.append(random.nextDouble() < 0.08 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private Set<String> skills(int count) {
+        Set<String> picked = new HashSet<>();
+        while (picked.size() < count) {
+            int index = Arrays.binarySearch(skillCdf, random.nextDouble());
+            picked.add(skills[Math.min(index < 0 ? -index - 1 : index, SKILL_COUNT - 1)]);
+        }
+        return picked;
+    }
+
+    private Designation designation() {
+        double roll = random.nextDouble();
+        if (roll < 0.35) {
+            return Designation.JUNIOR;
+        }
+        if (roll < 0.70) {
+            return Designation.MID;
+        }
+        return roll < 0.90 ? Designation.SENIOR : Designation.TECH_LEAD;
+    }
+
+    private Priority priority() {
+        double roll = random.nextDouble();
+        if (roll < 0.1) {
+            return Priority.P1;
+        }
+        return roll < 0.4 ? Priority.P2 : Priority.P3;
+    }
+}
@@ -0,0 +1,329 @@
+package com.intelliroute.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliroute.IntelliRouteApplication;
+import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.event.QueryStatusChangedEvent;
+import com.intelliroute.model.Assignment;
+import com.intelliroute.model.AssignmentStatus;
+import com.intelliroute.model.QueryStatus;
+import com.intelliroute.repository.AssignmentRepository;
+import com.intelliroute.service.AssignmentService;
+import com.intelliroute.service.PendingQueue;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+
+/**
+ * Runs IntelliRoute in-process against an in-memory Mongo and drives it through its REST API: registers a
+ * pool of engineers, posts queries as a Poisson arrival process, completes assignments after exponentially
+ * distributed handling times, and reports ingest throughput, cycle duration, queue depth over time and
+ * time-to-assign percentiles.
+ * <p>
+ * Scenario options are {@code sim.*} properties (see {@link SimulationSettings}); every other argument is
+ * passed to the application, e.g. {@code --assignment.bulk.enabled=true}.
+ */
+@Slf4j
+public final class LoadSimulator {
+
+    private final SimulationSettings settings;
+    private final ConfigurableApplicationContext context;
+    private final Probe probe;
+    private final ObjectMapper objectMapper;
+    private final HttpClient http;
+    private final String baseUrl;
+    private final WorkloadGenerator workload;
+
+    private LoadSimulator(SimulationSettings settings, ConfigurableApplicationContext context, Probe probe) {
+        this.settings = settings;
+        this.context = context;
+        this.probe = probe;
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.baseUrl = "http://localhost:" + port;
+        this.workload = new WorkloadGenerator(settings);
+    }
+
+    public static void main(String[] args) throws Exception {
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongo.bind();
+
+        Probe probe = new Probe();
+        SpringApplication application = new SpringApplication(IntelliRouteApplication.class);
+        application.addListeners(probe);
+        application.addInitializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(probe));
+
+        int exitCode = 0;
+        try (ConfigurableApplicationContext context = application.run(withDefaults(args, Map.of(
+                "spring.data.mongodb.uri", "mongodb://localhost:" + address.getPort() + "/intelliroute-sim",
+                "spring.main.banner-mode", "off",
+                "server.port", "0",
+                "assignment.dispatch.enabled", "true",
+                "logging.level.com.intelliroute", "WARN",
+                // Score with the heuristic unless a Gemini key is given explicitly.
+                "ai.gemini.api-key", "")))) {
+            SimulationSettings settings = SimulationSettings.from(context.getEnvironment());
+            new LoadSimulator(settings, context, probe).run();
+        } catch (RuntimeException ex) {
+            log.error("Simulation failed", ex);
+            exitCode = 1;
+        } finally {
+            mongo.shutdownNow();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Adds {@code defaults} as command-line arguments, which outrank the environment variables that
+     * {@code application.yml} reads, unless the caller passed the same property.
+     */
+    private static String[] withDefaults(String[] args, Map<String, String> defaults) {
+        List<String> all = new ArrayList<>(Arrays.asList(args));
+        defaults.forEach((key, value) -> {
+            if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+                all.add("--" + key + "=" + value);
+            }
+        });
+        return all.toArray(String[]::new);
+    }
+
+    private void run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients());
+        ScheduledExecutorService timers = Executors.newScheduledThreadPool(Math.max(2, settings.clients() / 4));
+        try {
+            registerEngineers(clients);
+
+            long start = System.nanoTime();
+            Measurements measurements = new Measurements(start + settings.warmup().toNanos());
+            probe.measurements = measurements;
+            probe.onAssigned = queryId -> scheduleCompletion(timers, measurements, queryId, 0);
+            PendingQueue pendingQueue = context.getBean(PendingQueue.class);
+            long interval = settings.sampleInterval().toNanos();
+            timers.scheduleAtFixedRate(() -> measurements.sample(new Measurements.Sample(
+                    (System.nanoTime() - start) / 1e9,
+                    measurements.ingested.get(),
+                    measurements.waiting(),
+                    pendingQueue.size(),
+                    measurements.escalated.get(),
+                    measurements.assigned.get() - measurements.completed.get(),
+                    measurements.completed.get())), interval, interval, TimeUnit.NANOSECONDS);
+
+            log.warn("Posting {} queries/s for {}", settings.rate(), settings.duration());
+            long end = start + settings.duration().toNanos();
+            double meanGap = 1e9 / settings.rate();
+            long next = start;
+            while (true) {
+                next += workload.exponentialNanos(meanGap);
+                if (next >= end) {
+                    break;
+                }
+                sleepUntil(next);
+                measurements.offered.incrementAndGet();
+                long intended = next;
+                clients.execute(() -> createQuery(measurements, intended));
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+            long arrivals = System.nanoTime() - start;
+
+            long drainUntil = System.nanoTime() + settings.drain().toNanos();
+            while (measurements.waiting() > 0 && System.nanoTime() < drainUntil) {
+                Thread.sleep(100);
+            }
+            timers.shutdownNow();
+            measurements.print(System.out, settings, Duration.ofNanos(arrivals));
+        } finally {
+            clients.shutdownNow();
+            timers.shutdownNow();
+        }
+    }
+
+    private void registerEngineers(ExecutorService clients) throws InterruptedException {
+        List<Future<?>> created = new ArrayList<>();
+        for (int i = 0; i < settings.engineers(); i++) {
+            int n = i;
+            created.add(clients.submit(() -> {
+                HttpResponse<String> response = send(post("/api/engineers", workload.engineer(n)));
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("Engineer registration failed: " + response.body());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : created) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+        log.warn("Registered {} engineers", settings.engineers());
+    }
+
+    private void createQuery(Measurements measurements, long intended) {
+        CreateQueryRequest request = workload.query();
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(post("/api/queries", request));
+            long received = System.nanoTime();
+            if (response.statusCode() / 100 != 2) {
+                measurements.ingestErrors.incrementAndGet();
+                return;
+            }
+            String id = objectMapper.readTree(response.body()).path("id").asText();
+            measurements.ingested(id, request.getPriority(), intended, sent, received);
+        } catch (IOException | RuntimeException ex) {
+            measurements.ingestErrors.incrementAndGet();
+        }
+    }
+
+    private void scheduleCompletion(ScheduledExecutorService timers, Measurements measurements,
+                                    String queryId, int attempt) {
+        if (settings.handleTime().isZero() || timers.isShutdown()) {
+            return;
+        }
+        long delay = attempt == 0 ? workload.exponentialNanos(settings.handleTime().toNanos())
+                : TimeUnit.MILLISECONDS.toNanos(200);
+        try {
+            timers.schedule(() -> complete(timers, measurements, queryId, attempt), delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // The run is over.
+        }
+    }
+
+    private void complete(ScheduledExecutorService timers, Measurements measurements, String queryId, int attempt) {
+        Optional<Assignment> assignment = context.getBean(AssignmentRepository.class).findByQueryId(queryId).stream()
+                .filter(a -> a.getStatus() == AssignmentStatus.ACTIVE)
+                .findFirst();
+        if (assignment.isEmpty()) {
+            // The status change is published before the assignment document is written on some paths.
+            if (attempt < 5) {
+                scheduleCompletion(timers, measurements, queryId, attempt + 1);
+            } else {
+                measurements.completionErrors.incrementAndGet();
+            }
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                        baseUrl + "/api/assignments/" + assignment.get().getId() + "/complete"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = send(request);
+        if (response.statusCode() / 100 == 2) {
+            measurements.completed.incrementAndGet();
+        } else {
+            measurements.completionErrors.incrementAndGet();
+        }
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void sleepUntil(long nanos) {
+        long remaining;
+        while ((remaining = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Observes the application from inside: status events give the exact assignment time of each query, and a
+     * proxy around {@link AssignmentService} times every assignment cycle.
+     */
+    private static final class Probe implements ApplicationListener<ApplicationEvent>, BeanPostProcessor {
+
+        private volatile Measurements measurements;
+        private volatile Consumer<String> onAssigned = id -> { };
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            Measurements current = measurements;
+            if (current == null || !(event instanceof PayloadApplicationEvent<?> payload)
+                    || !(payload.getPayload() instanceof QueryStatusChangedEvent changed)) {
+                return;
+            }
+            QueryStatus status = changed.query().getStatus();
+            if (status == QueryStatus.ASSIGNED) {
+                if (current.assigned(changed.query().getId(), System.nanoTime())) {
+                    onAssigned.accept(changed.query().getId());
+                }
+            } else if (status == QueryStatus.ESCALATED) {
+                current.escalated.incrementAndGet();
+            }
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof AssignmentService)) {
+                return bean;
+            }
+            ProxyFactory proxy = new ProxyFactory(bean);
+            proxy.setProxyTargetClass(true);
+            proxy.addAdvice((MethodInterceptor) invocation -> {
+                if (!invocation.getMethod().getName().equals("runAssignmentCycle")) {
+                    return invocation.proceed();
+                }
+                long start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    Measurements current = measurements;
+                    if (current != null) {
+                        current.cycle(System.nanoTime() - start);
+                    }
+                }
+            });
+            return proxy.getProxy(bean.getClass().getClassLoader());
+        }
+    }
+}
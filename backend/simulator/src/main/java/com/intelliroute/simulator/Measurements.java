@@ -0,0 +1,163 @@
+package com.intelliroute.simulator;
+
+import com.intelliroute.model.Priority;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Counters and latency histograms of one simulation run. Time to assign runs from the intended arrival time
+ * of a query to the moment the application publishes its assignment, so a client that falls behind the
+ * arrival schedule shows up as latency instead of hiding it.
+ */
+final class Measurements {
+
+    final AtomicLong offered = new AtomicLong();
+    final AtomicLong ingested = new AtomicLong();
+    final AtomicLong ingestErrors = new AtomicLong();
+    final AtomicLong assigned = new AtomicLong();
+    final AtomicLong escalated = new AtomicLong();
+    final AtomicLong completed = new AtomicLong();
+    final AtomicLong completionErrors = new AtomicLong();
+
+    private final long warmupEndNanos;
+    private final Histogram ingestLatency = histogram();
+    private final Histogram cycleDuration = histogram();
+    private final Histogram timeToAssign = histogram();
+    private final Map<Priority, Histogram> timeToAssignByPriority = new EnumMap<>(Priority.class);
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final List<Sample> samples = new ArrayList<>();
+
+    Measurements(long warmupEndNanos) {
+        this.warmupEndNanos = warmupEndNanos;
+        for (Priority priority : Priority.values()) {
+            timeToAssignByPriority.put(priority, histogram());
+        }
+    }
+
+    void ingested(String queryId, Priority priority, long intendedNanos, long sentNanos, long receivedNanos) {
+        ingested.incrementAndGet();
+        ingestLatency.recordValue(micros(receivedNanos - sentNanos));
+        Tracked created = new Tracked(priority, intendedNanos, 0);
+        // The assignment may be published before the create call has returned.
+        tracked.merge(queryId, created, (existing, update) -> record(update.join(existing)));
+    }
+
+    /**
+     * Returns {@code true} the first time a query is seen assigned.
+     */
+    boolean assigned(String queryId, long nanos) {
+        boolean[] first = {false};
+        tracked.compute(queryId, (id, existing) -> {
+            if (existing != null && existing.assignedNanos != 0) {
+                return existing;
+            }
+            first[0] = true;
+            return existing == null ? new Tracked(null, 0, nanos) : record(existing.join(new Tracked(null, 0, nanos)));
+        });
+        if (first[0]) {
+            assigned.incrementAndGet();
+        }
+        return first[0];
+    }
+
+    void cycle(long nanos) {
+        cycleDuration.recordValue(micros(nanos));
+    }
+
+    synchronized void sample(Sample sample) {
+        samples.add(sample);
+    }
+
+    long waiting() {
+        return ingested.get() - assigned.get();
+    }
+
+    void print(PrintStream out, SimulationSettings settings, Duration arrivals) {
+        double seconds = arrivals.toNanos() / 1e9;
+        out.println();
+        out.println("=== IntelliRoute load simulation ===");
+        out.printf("arrivals        %.1f/s offered for %ss, %d engineers, priority mix %s%n",
+                settings.rate(), arrivals.toSeconds(), settings.engineers(), settings.priorityMix());
+        out.printf("ingest          %d offered, %d created, %d failed; %.1f queries/s%n",
+                offered.get(), ingested.get(), ingestErrors.get(), ingested.get() / seconds);
+        line(out, "create latency", ingestLatency);
+        out.printf("assignment      %d assigned, %d escalated, %d still waiting%n",
+                assigned.get(), escalated.get(), waiting());
+        out.printf("completion      %d completed (%.1f/s), %d failed%n",
+                completed.get(), completed.get() / seconds, completionErrors.get());
+        out.printf("cycles          %d%n", cycleDuration.getTotalCount());
+        line(out, "cycle duration", cycleDuration);
+        out.printf("time to assign  (queries created after the %ss warmup)%n", settings.warmup().toSeconds());
+        line(out, "  all", timeToAssign);
+        timeToAssignByPriority.forEach((priority, histogram) -> line(out, "  " + priority, histogram));
+        Histogram p1 = timeToAssignByPriority.get(Priority.P1);
+        if (p1.getTotalCount() > 0) {
+            long slo = micros(settings.p1Slo().toNanos());
+            double within = 100.0 * p1.getCountBetweenValues(0, slo) / p1.getTotalCount();
+            out.printf("P1 SLO          %.2f%% assigned within %s%n", within, settings.p1Slo());
+        }
+        out.println();
+        out.printf("%8s %10s %10s %10s %10s %10s %10s%n",
+                "t(s)", "created", "waiting", "queued", "escalated", "active", "completed");
+        synchronized (this) {
+            for (Sample s : samples) {
+                out.printf("%8.1f %10d %10d %10d %10d %10d %10d%n", s.seconds(), s.created(), s.waiting(),
+                        s.queued(), s.escalated(), s.active(), s.completed());
+            }
+        }
+    }
+
+    private Tracked record(Tracked joined) {
+        if (joined.intendedNanos != 0 && joined.assignedNanos != 0 && joined.intendedNanos >= warmupEndNanos) {
+            long value = micros(Math.max(0, joined.assignedNanos - joined.intendedNanos));
+            timeToAssign.recordValue(value);
+            timeToAssignByPriority.get(joined.priority).recordValue(value);
+        }
+        return joined;
+    }
+
+    private static void line(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("%-15s n/a%n", label);
+            return;
+        }
+        out.printf("%-15s p50 %s  p99 %s  p999 %s  max %s  (n=%d)%n", label,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+                histogram.getTotalCount());
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2fms", micros / 1000.0);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(3);
+    }
+
+    record Sample(double seconds, long created, long waiting, long queued, long escalated, long active,
+                  long completed) {
+    }
+
+    private record Tracked(Priority priority, long intendedNanos, long assignedNanos) {
+
+        Tracked join(Tracked other) {
+            return new Tracked(priority != null ? priority : other.priority,
+                    intendedNanos != 0 ? intendedNanos : other.intendedNanos,
+                    assignedNanos != 0 ? assignedNanos : other.assignedNanos);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.intelliroute.simulator;
+
+import com.intelliroute.model.Designation;
+import com.intelliroute.model.Priority;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.core.env.Environment;
+
+/**
+ * Scenario read from {@code sim.*} properties, so it can be given as {@code --sim.rate=50} arguments or as
+ * {@code SIM_RATE} style environment variables. Ranges are written {@code min-max}, mixes
+ * {@code NAME:weight,...}.
+ */
+record SimulationSettings(
+        Duration duration,
+        Duration warmup,
+        Duration drain,
+        Duration sampleInterval,
+        double rate,
+        int clients,
+        int engineers,
+        int[] capacity,
+        Map<Designation, Double> designationMix,
+        Map<Priority, Double> priorityMix,
+        int skills,
+        double skillSkew,
+        int[] skillsPerEngineer,
+        int[] tagsPerQuery,
+        Duration handleTime,
+        Duration p1Slo,
+        long seed) {
+
+    static SimulationSettings from(Environment env) {
+        return new SimulationSettings(
+                env.getProperty("sim.duration", Duration.class, Duration.ofSeconds(60)),
+                env.getProperty("sim.warmup", Duration.class, Duration.ofSeconds(10)),
+                env.getProperty("sim.drain", Duration.class, Duration.ofSeconds(30)),
+                env.getProperty("sim.sample-interval", Duration.class, Duration.ofSeconds(1)),
+                env.getProperty("sim.rate", Double.class, 20.0),
+                env.getProperty("sim.clients", Integer.class, 16),
+                env.getProperty("sim.engineers", Integer.class, 200),
+                range(env.getProperty("sim.capacity", "2-8")),
+                mix(env.getProperty("sim.designation-mix", "JUNIOR:35,MID:35,SENIOR:20,TECH_LEAD:10"),
+                        Designation.class, Designation::valueOf),
+                mix(env.getProperty("sim.priority-mix", "P1:10,P2:30,P3:60"), Priority.class, Priority::valueOf),
+                env.getProperty("sim.skills", Integer.class, 200),
+                env.getProperty("sim.skill-skew", Double.class, 1.1),
+                range(env.getProperty("sim.skills-per-engineer", "2-6")),
+                range(env.getProperty("sim.tags-per-query", "1-3")),
+                env.getProperty("sim.handle-time", Duration.class, Duration.ofSeconds(30)),
+                env.getProperty("sim.p1-slo", Duration.class, Duration.ofSeconds(5)),
+                env.getProperty("sim.seed", Long.class, 42L));
+    }
+
+    private static int[] range(String value) {
+        String[] bounds = value.trim().split("-");
+        int min = Integer.parseInt(bounds[0].trim());
+        int max = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : min;
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid range: " + value);
+        }
+        return new int[] {min, max};
+    }
+
+    private static <E extends Enum<E>> Map<E, Double> mix(String value, Class<E> type, Function<String, E> parse) {
+        Map<E, Double> weights = new EnumMap<>(type);
+        double total = 0;
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            double weight = Double.parseDouble(pair[1].trim());
+            weights.put(parse.apply(pair[0].trim().toUpperCase()), weight);
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Invalid mix: " + value);
+        }
+        for (Map.Entry<E, Double> entry : weights.entrySet()) {
+            entry.setValue(entry.getValue() / total);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,107 @@
+package com.intelliroute.simulator;
+
+import com.intelliroute.dto.CreateQueryRequest;
+import com.intelliroute.dto.EngineerRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded request generator. Skills and tags are drawn from one Zipf-distributed vocabulary, so common skills
+ * are both widely held and frequently asked for.
+ */
+final class WorkloadGenerator {
+
+    private static final String[] WORDS = {
+            "the", "service", "request", "returns", "error", "when", "user", "tries", "to", "login", "page",
+            "after", "deploy", "timeout", "database", "connection", "customer", "reports", "invoice", "missing",
+            "slow", "dashboard", "intermittent", "failure", "queue", "message", "retry", "cache", "config"
+    };
+    private static final String[] KEYWORDS = {
+            "outage", "critical", "latency", "security", "data loss", "architecture", "refactor", "simple", "typo"
+    };
+
+    private final SimulationSettings settings;
+    private final Random random;
+    private final double[] skillCdf;
+
+    WorkloadGenerator(SimulationSettings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+        this.skillCdf = new double[settings.skills()];
+        double total = 0;
+        for (int i = 0; i < skillCdf.length; i++) {
+            total += 1.0 / Math.pow(i + 1, settings.skillSkew());
+            skillCdf[i] = total;
+        }
+        for (int i = 0; i < skillCdf.length; i++) {
+            skillCdf[i] /= total;
+        }
+    }
+
+    synchronized EngineerRequest engineer(int n) {
+        EngineerRequest request = new EngineerRequest();
+        request.setName("sim-engineer-" + n);
+        request.setDesignation(pick(settings.designationMix()));
+        request.setCapacity(Math.max(1, between(settings.capacity())));
+        request.setSkills(skills(between(settings.skillsPerEngineer())));
+        return request;
+    }
+
+    synchronized CreateQueryRequest query() {
+        CreateQueryRequest request = new CreateQueryRequest();
+        request.setPriority(pick(settings.priorityMix()));
+        request.setTags(List.copyOf(skills(between(settings.tagsPerQuery()))));
+        request.setDescription(description());
+        return request;
+    }
+
+    /**
+     * Exponentially distributed delay with the given mean, for Poisson arrivals and handling times.
+     */
+    synchronized long exponentialNanos(double meanNanos) {
+        return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+    }
+
+    private String description() {
+        int target = (int) Math.exp(Math.log(40) + random.nextDouble() * (Math.log(1200) - Math.log(40)));
+        StringBuilder text = new StringBuilder(target + 16);
+        while (text.length() < target) {
+            text.append(random.nextDouble() < 0.03
+                    ? KEYWORDS[random.nextInt(KEYWORDS.length)]
+                    : WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextDouble() < 0.08 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private Set<String> skills(int count) {
+        Set<String> picked = new HashSet<>();
+        int wanted = Math.min(count, skillCdf.length);
+        while (picked.size() < wanted) {
+            int index = Arrays.binarySearch(skillCdf, random.nextDouble());
+            picked.add("skill-" + Math.min(index < 0 ? -index - 1 : index, skillCdf.length - 1));
+        }
+        return picked;
+    }
+
+    private int between(int[] range) {
+        return range[0] + random.nextInt(range[1] - range[0] + 1);
+    }
+
+    private <E> E pick(Map<E, Double> mix) {
+        double roll = random.nextDouble();
+        List<E> keys = new ArrayList<>(mix.keySet());
+        for (E key : keys) {
+            roll -= mix.get(key);
+            if (roll < 0) {
+                return key;
+            }
+        }
+        return keys.get(keys.size() - 1);
+    }
+}
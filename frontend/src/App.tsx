@@ -9,14 +9,23 @@ import {
   completeAssignment,
   createEngineer,
   createQuery,
-  fetchAssignments,
-  fetchEngineers,
-  fetchQueries,
-  runAssignmentCycle
+  runAssignmentCycle,
+  subscribeToFeed
 } from './api';
 
 type Tab = 'engineers' | 'queries' | 'assignments';
 
+// Replaces the item with the same id, or adds it (newest-first lists add at the front).
+function upsert<T extends { id: string }>(list: T[], item: T, newestFirst = false): T[] {
+  const index = list.findIndex((x) => x.id === item.id);
+  if (index === -1) {
+    return newestFirst ? [item, ...list] : [...list, item];
+  }
+  const next = list.slice();
+  next[index] = item;
+  return next;
+}
+
 const designationOptions: { value: Designation; label: string }[] = [
   { value: 'JUNIOR', label: 'Junior SE' },
   { value: 'MID', label: 'Software Engineer' },
@@ -52,28 +61,23 @@ function App() {
     domain: ''
   });
 
-  async function loadAll() {
-    try {
-      setLoading(true);
-      setError(null);
-      const [eng, q, asg] = await Promise.all([
-        fetchEngineers(),
-        fetchQueries(),
-        fetchAssignments()
-      ]);
-      setEngineers(eng);
-      setQueries(q);
-      setAssignments(asg);
-    } catch (e: any) {
-      setError(e?.message ?? 'Failed to load data');
-    } finally {
-      setLoading(false);
-    }
-  }
-
-  useEffect(() => {
-    loadAll().catch(() => undefined);
-  }, []);
+  // The feed sends a snapshot first and then only changes, so nothing is re-fetched after an action.
+  useEffect(
+    () =>
+      subscribeToFeed({
+        snapshot: (snapshot) => {
+          setEngineers(snapshot.engineers);
+          setQueries(snapshot.queries);
+          setAssignments(snapshot.assignments);
+        },
+        query: (query) => setQueries((prev) => upsert(prev, query, true)),
+        engineer: (engineer) => setEngineers((prev) => upsert(prev, engineer)),
+        assignment: (assignment) => setAssignments((prev) => upsert(prev, assignment, true)),
+        open: () => setError(null),
+        error: () => setError('Live updates interrupted; reconnecting…')
+      }),
+    []
+  );
 
   const handleCreateEngineer = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -90,7 +94,7 @@ function App() {
         skills,
         available: true
       });
-      setEngineers((prev) => [...prev, created]);
+      setEngineers((prev) => upsert(prev, created));
       setNewEngineer({ name: '', designation: 'JUNIOR', capacity: 3, skills: '' });
     } catch (e: any) {
       setError(e?.message ?? 'Failed to create engineer');
@@ -113,7 +117,7 @@ function App() {
         tags,
         domain: newQuery.domain || undefined
       });
-      setQueries((prev) => [...prev, created]);
+      setQueries((prev) => upsert(prev, created, true));
       setNewQuery({ description: '', priority: 'P3', tags: '', domain: '' });
     } catch (e: any) {
       setError(e?.message ?? 'Failed to create query');
@@ -126,12 +130,6 @@ function App() {
     try {
       setLoading(true);
       await runAssignmentCycle();
-      const [updatedQueries, updatedAssignments] = await Promise.all([
-        fetchQueries(),
-        fetchAssignments()
-      ]);
-      setQueries(updatedQueries);
-      setAssignments(updatedAssignments);
     } catch (e: any) {
       setError(e?.message ?? 'Failed to run assignment cycle');
     } finally {
@@ -146,13 +144,7 @@ function App() {
     try {
       setLoading(true);
       const updated = await completeAssignment(assignment.id);
-      setAssignments((prev) =>
-        prev.map((a) => (a.id === updated.id ? updated : a))
-      );
-      const updatedQueries = await fetchQueries();
-      setQueries(updatedQueries);
-      const updatedEngineers = await fetchEngineers();
-      setEngineers(updatedEngineers);
+      setAssignments((prev) => upsert(prev, updated, true));
     } catch (e: any) {
       setError(e?.message ?? 'Failed to complete assignment');
     } finally {
@@ -24,6 +24,7 @@ export interface SupportQuery {
   priority: Priority;
   tags: string[];
   domain?: string | null;
+  duplicateOf?: string | null;
 }
 
 export interface Assignment {
@@ -57,7 +58,7 @@ export async function createEngineer(payload: {
 }
 
 export async function fetchQueries(): Promise<SupportQuery[]> {
-  const res = await api.get<SupportQuery[]>('/queries');
+  const res = await api.get<SupportQuery[]>('/queries', { params: { direction: 'DESC' } });
   return res.data;
 }
 
@@ -72,7 +73,7 @@ export async function createQuery(payload: {
 }
 
 export async function fetchAssignments(): Promise<Assignment[]> {
-  const res = await api.get<Assignment[]>('/assignments');
+  const res = await api.get<Assignment[]>('/assignments', { params: { direction: 'DESC' } });
   return res.data;
 }
 
@@ -85,4 +86,36 @@ export async function completeAssignment(id: string): Promise<Assignment> {
   return res.data;
 }
 
+export interface FeedSnapshot {
+  sequence: number;
+  engineers: Engineer[];
+  queries: SupportQuery[];
+  assignments: Assignment[];
+}
+
+export interface FeedHandlers {
+  snapshot: (snapshot: FeedSnapshot) => void;
+  query: (query: SupportQuery) => void;
+  engineer: (engineer: Engineer) => void;
+  assignment: (assignment: Assignment) => void;
+  open?: () => void;
+  error?: () => void;
+}
 
+// The browser reconnects on its own and resumes from the last event id, so a snapshot is only sent again
+// when too much was missed. Returns a function that closes the stream.
+export function subscribeToFeed(handlers: FeedHandlers): () => void {
+  const source = new EventSource('/api/feed');
+  function on<T>(types: string[], handle: (data: T) => void) {
+    types.forEach((type) =>
+      source.addEventListener(type, (e) => handle(JSON.parse((e as MessageEvent).data) as T))
+    );
+  }
+  on(['snapshot'], handlers.snapshot);
+  on(['query.created', 'query.pending', 'query.assigned', 'query.escalated', 'query.resolved'], handlers.query);
+  on(['engineer.updated'], handlers.engineer);
+  on(['assignment.created', 'assignment.completed'], handlers.assignment);
+  source.onopen = () => handlers.open?.();
+  source.onerror = () => handlers.error?.();
+  return () => source.close();
+}